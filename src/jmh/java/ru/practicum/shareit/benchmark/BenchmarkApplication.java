@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Запуск приложения для бенчмарков на именованной in-memory базе H2
+ * с отключенным подробным логированием. База живет до конца работы JVM,
+ * поэтому ее можно заполнить до старта контекста, который строит индексы в памяти.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkApplication {
+
+    public static String newDatabase() {
+        return "bench-" + UUID.randomUUID();
+    }
+
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                       String database,
+                                                       String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.open-in-view=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "--logging.level.ru.practicum.shareit=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Создает схему базы и заполняет ее данными во временном контексте без индексов в памяти
+     */
+    public static void seed(String database, Consumer<JdbcTemplate> seeder) {
+        try (ConfigurableApplicationContext context = start(WebApplicationType.NONE, database,
+                "--shareit.booking.index.enabled=false",
+                "--shareit.item.search.index.enabled=false")) {
+            seeder.accept(context.getBean(JdbcTemplate.class));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Быстрое наполнение базы пакетными вставками в обход сервисного слоя.
+ * Возвращает id первой созданной записи: id в каждой таблице выдаются подряд.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkData {
+    private static final int BATCH_SIZE = 1000;
+
+    public static long insertUsers(JdbcTemplate jdbcTemplate, int count) {
+        long firstId = nextId(jdbcTemplate, "users", "user_id");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"user " + i, "user" + (firstId + i) + "@bench.ru"});
+            flushIfFull(jdbcTemplate, "insert into users (name, email) values (?, ?)", rows, i == count - 1);
+        }
+        return firstId;
+    }
+
+    public static long insertItems(JdbcTemplate jdbcTemplate, long ownerId, int count, ItemText text) {
+        long firstId = nextId(jdbcTemplate, "items", "item_id");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{text.name(i), text.description(i), true, ownerId});
+            flushIfFull(jdbcTemplate,
+                    "insert into items (name, description, is_available, owner_id) values (?, ?, ?, ?)",
+                    rows,
+                    i == count - 1);
+        }
+        return firstId;
+    }
+
+    /**
+     * Создает для каждой вещи bookingsPerItem последовательных бронирований вокруг текущего момента
+     */
+    public static void insertBookings(JdbcTemplate jdbcTemplate,
+                                      long firstItemId,
+                                      int itemCount,
+                                      long firstBookerId,
+                                      int bookerCount,
+                                      int bookingsPerItem) {
+        LocalDateTime base = LocalDateTime.now().minusDays(bookingsPerItem / 2).withNano(0);
+        List<Object[]> rows = new ArrayList<>();
+        int total = itemCount * bookingsPerItem;
+        for (int i = 0; i < total; i++) {
+            LocalDateTime start = base.plusDays(i % bookingsPerItem);
+            rows.add(new Object[]{
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(12)),
+                    firstItemId + i / bookingsPerItem,
+                    firstBookerId + i % bookerCount,
+                    i % 5 == 0 ? "WAITING" : "APPROVED"});
+            flushIfFull(jdbcTemplate,
+                    "insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?)",
+                    rows,
+                    i == total - 1);
+        }
+    }
+
+    public static void insertComments(JdbcTemplate jdbcTemplate,
+                                      long firstItemId,
+                                      int itemCount,
+                                      long authorId,
+                                      int commentsPerItem) {
+        List<Object[]> rows = new ArrayList<>();
+        int total = itemCount * commentsPerItem;
+        for (int i = 0; i < total; i++) {
+            rows.add(new Object[]{"comment " + i, firstItemId + i / commentsPerItem, authorId,
+                    Timestamp.valueOf(LocalDateTime.now())});
+            flushIfFull(jdbcTemplate,
+                    "insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                    rows,
+                    i == total - 1);
+        }
+    }
+
+    private static long nextId(JdbcTemplate jdbcTemplate, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        return maxId == null ? 1 : maxId + 1;
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows, boolean last) {
+        if (rows.size() >= BATCH_SIZE || (last && !rows.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    public interface ItemText {
+        String name(int index);
+
+        String description(int index);
+    }
+}
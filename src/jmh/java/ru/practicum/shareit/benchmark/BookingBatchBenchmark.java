@@ -0,0 +1,122 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость создания одного бронирования через POST /bookings и через POST /bookings/batch.
+ * Оба варианта создают за вызов BATCH_SIZE бронирований по HTTP, время приводится к одному бронированию.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingBatchBenchmark {
+    private static final int BATCH_SIZE = 200;
+    private static final int ITEMS = 100;
+    private static final int BOOKERS = 50;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI singleUri;
+    private URI batchUri;
+    private long firstBookerId;
+    private List<String> singleBodies;
+    private String batchBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        String database = BenchmarkApplication.newDatabase();
+        long[] firstItemId = new long[1];
+        BenchmarkApplication.seed(database, jdbcTemplate -> {
+            long ownerId = BenchmarkData.insertUsers(jdbcTemplate, 1);
+            firstBookerId = BenchmarkData.insertUsers(jdbcTemplate, BOOKERS);
+            firstItemId[0] = BenchmarkData.insertItems(jdbcTemplate, ownerId, ITEMS, new BenchmarkData.ItemText() {
+                @Override
+                public String name(int index) {
+                    return "item " + index;
+                }
+
+                @Override
+                public String description(int index) {
+                    return "description " + index;
+                }
+            });
+        });
+
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET, database, "--server.port=0");
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        singleUri = URI.create(baseUrl + "/bookings");
+        batchUri = URI.create(baseUrl + "/bookings/batch");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<BookingDto> bookings = new ArrayList<>();
+        singleBodies = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BookingDto booking = BookingDto.builder()
+                    .itemId(firstItemId[0] + i % ITEMS)
+                    .bookerId(bookerId(i))
+                    .start(base.plusHours(i))
+                    .end(base.plusHours(i + 1))
+                    .build();
+            bookings.add(booking);
+            singleBodies.add(objectMapper.writeValueAsString(booking));
+        }
+        batchBody = objectMapper.writeValueAsString(bookings);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int singleEndpoint() throws Exception {
+        int statuses = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            statuses += post(singleUri, bookerId(i), singleBodies.get(i)).statusCode();
+        }
+        return statuses;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchEndpoint() throws Exception {
+        return post(batchUri, firstBookerId, batchBody).body().length();
+    }
+
+    private long bookerId(int index) {
+        return firstBookerId + index % BOOKERS;
+    }
+
+    private HttpResponse<String> post(URI uri, long userId, String body) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Неожиданный ответ " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+}
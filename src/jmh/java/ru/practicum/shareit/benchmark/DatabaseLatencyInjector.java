@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Имитирует задержку сети до базы данных: каждое получение соединения из пула
+ * удерживает соединение и поток заданное время. Включается свойством benchmark.db-latency.
+ */
+@Component
+@ConditionalOnProperty("benchmark.db-latency")
+public class DatabaseLatencyInjector implements BeanPostProcessor {
+    private final Duration latency;
+
+    public DatabaseLatencyInjector(@Value("${benchmark.db-latency}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || latency.isZero()) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return connection;
+            }
+        };
+    }
+}
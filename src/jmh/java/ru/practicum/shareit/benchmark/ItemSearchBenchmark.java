@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей: триграммный индекс в памяти против JPQL-запроса с like '%text%'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {"дрель", "отвертка", "пила", "молоток", "лестница", "палатка",
+            "велосипед", "шуруповерт", "перфоратор", "рубанок", "стремянка", "фонарь", "котелок", "спальник"};
+
+    @Param({"1000000"})
+    private int itemCount;
+
+    @Param({"шуруп", "рель", "котелок 42"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearchIndex searchIndex;
+    private ItemRepository itemRepository;
+
+    @Setup
+    public void setUp() {
+        String database = BenchmarkApplication.newDatabase();
+        BenchmarkApplication.seed(database, jdbcTemplate -> {
+            long ownerId = BenchmarkData.insertUsers(jdbcTemplate, 1);
+            BenchmarkData.insertItems(jdbcTemplate, ownerId, itemCount, new BenchmarkData.ItemText() {
+                @Override
+                public String name(int index) {
+                    return WORDS[index % WORDS.length] + " " + index % 1000;
+                }
+
+                @Override
+                public String description(int index) {
+                    return "Почти новый " + WORDS[(index / WORDS.length) % WORDS.length] + ", модель " + index;
+                }
+            });
+        });
+
+        context = BenchmarkApplication.start(WebApplicationType.NONE, database);
+        searchIndex = context.getBean(ItemSearchIndex.class);
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> trigramIndex() {
+        return searchIndex.search(query, 100);
+    }
+
+    @Benchmark
+    public List<Item> jpqlLike() {
+        return itemRepository.search(query);
+    }
+}
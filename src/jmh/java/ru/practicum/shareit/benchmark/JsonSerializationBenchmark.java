@@ -0,0 +1,131 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.json.JacksonConfiguration;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Время сериализации больших списочных ответов стандартным Jackson и с модулем приложения
+ * (запись дат без DateTimeFormatter), отдельно - с последующим gzip, как при сжатии ответа сервером.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"100", "1000"})
+    private int listSize;
+
+    @Param({"default", "shareit"})
+    private String serializer;
+
+    private ObjectMapper objectMapper;
+    private List<ItemWithBookDateDto> ownerItems;
+    private List<DetailedBookingDto> ownerBookings;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("shareit".equals(serializer)) {
+            builder.modulesToInstall(new JacksonConfiguration().shareItJsonModule());
+        }
+        objectMapper = builder.build();
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        User owner = User.builder().id(1L).name("Owner").email("owner@mail.ru").build();
+        ownerItems = new ArrayList<>(listSize);
+        ownerBookings = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            User booker = User.builder().id(i + 2L).name("Booker " + i).email("booker" + i + "@mail.ru").build();
+            Item item = Item.builder()
+                    .id((long) i)
+                    .name("Дрель " + i)
+                    .description("Простая дрель с набором сверл, модель " + i)
+                    .available(true)
+                    .ownerId(owner.getId())
+                    .build();
+            ItemWithBookDateDto itemDto = ItemMapper.mapToItemWithBookDateDto(item,
+                    booking(2L * i, now.minusDays(2), item, booker),
+                    booking(2L * i + 1, now.plusDays(3), item, booker));
+            List<CommentDto> comments = new ArrayList<>(COMMENTS_PER_ITEM);
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(CommentMapper.mapToCommentDto(Comment.builder()
+                        .id((long) i * COMMENTS_PER_ITEM + c)
+                        .text("Отличная дрель, всем рекомендую " + c)
+                        .item(item)
+                        .author(booker)
+                        .created(now.minusDays(c))
+                        .build()));
+            }
+            itemDto.setComments(comments);
+            ownerItems.add(itemDto);
+            ownerBookings.add(BookingMapper.mapToDetailedBookingDto(
+                    booking(i, now.plusHours(i), item, booker), booker, item));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOwnerItems() throws IOException {
+        return objectMapper.writeValueAsBytes(ownerItems);
+    }
+
+    @Benchmark
+    public byte[] serializeOwnerBookings() throws IOException {
+        return objectMapper.writeValueAsBytes(ownerBookings);
+    }
+
+    @Benchmark
+    public byte[] serializeAndCompressOwnerItems() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(ownerItems));
+    }
+
+    @Benchmark
+    public byte[] serializeAndCompressOwnerBookings() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(ownerBookings));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static Booking booking(long id, LocalDateTime start, Item item, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusHours(12))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
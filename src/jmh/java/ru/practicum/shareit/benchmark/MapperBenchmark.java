@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "1000"})
+    private int listSize;
+
+    private Booking booking;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private User booker;
+    private Item item;
+    private Comment comment;
+    private List<DetailedBookingDto> detailedBookings;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        booker = User.builder().id(2L).name("Booker").email("booker@mail.ru").build();
+        item = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель с набором сверл")
+                .available(true)
+                .ownerId(1L)
+                .build();
+        booking = booking(1L, now.plusDays(1));
+        lastBooking = booking(2L, now.minusDays(2));
+        nextBooking = booking(3L, now.plusDays(3));
+        comment = Comment.builder()
+                .id(1L)
+                .text("Отличная дрель, всем рекомендую")
+                .item(item)
+                .author(booker)
+                .created(now)
+                .build();
+
+        detailedBookings = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            detailedBookings.add(BookingMapper.mapToDetailedBookingDto(booking(i, now.plusHours(i)), booker, item));
+        }
+        objectMapper = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public DetailedBookingDto mapToDetailedBookingDto() {
+        return BookingMapper.mapToDetailedBookingDto(booking, booker, item);
+    }
+
+    @Benchmark
+    public ItemWithBookDateDto mapToItemWithBookDateDto() {
+        return ItemMapper.mapToItemWithBookDateDto(item, lastBooking, nextBooking);
+    }
+
+    @Benchmark
+    public CommentDto mapToCommentDto() {
+        return CommentMapper.mapToCommentDto(comment);
+    }
+
+    @Benchmark
+    public byte[] serializeDetailedBookings() throws Exception {
+        return objectMapper.writeValueAsBytes(detailedBookings);
+    }
+
+    private Booking booking(long id, LocalDateTime start) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusHours(12))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.common.ratelimit.EndpointClass;
+import ru.practicum.shareit.common.ratelimit.UserRateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки лимита на пути допущенного запроса: лимиты заведомо не исчерпываются,
+ * пользователи выбираются случайно из пула, потоки конкурируют за общий кэш корзин
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @Param({"100", "100000"})
+    private int users;
+
+    private UserRateLimiter rateLimiter;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        int unlimited = Integer.MAX_VALUE / 2;
+        rateLimiter = new UserRateLimiter(new SimpleMeterRegistry(),
+                unlimited, unlimited, unlimited, unlimited, unlimited, unlimited, Duration.ofMinutes(10));
+        clientKeys = new String[users];
+        for (int i = 0; i < users; i++) {
+            clientKeys[i] = "user:" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return rateLimiter.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(users)], EndpointClass.LIST);
+    }
+}
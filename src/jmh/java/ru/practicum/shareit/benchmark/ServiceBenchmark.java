@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сквозные вызовы сервисов на H2, заполненной вещами одного владельца с бронированиями и отзывами
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int BOOKERS = 50;
+
+    @Param({"100"})
+    private int itemCount;
+
+    @Param({"20"})
+    private int bookingsPerItem;
+
+    @Param({"true", "false"})
+    private boolean bookingIndexEnabled;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private TransactionTemplate readOnly;
+    private long ownerId;
+
+    @Setup
+    public void setUp() {
+        String database = BenchmarkApplication.newDatabase();
+        BenchmarkApplication.seed(database, jdbcTemplate -> {
+            ownerId = BenchmarkData.insertUsers(jdbcTemplate, 1);
+            long firstBookerId = BenchmarkData.insertUsers(jdbcTemplate, BOOKERS);
+            long firstItemId = BenchmarkData.insertItems(jdbcTemplate, ownerId, itemCount,
+                    new BenchmarkData.ItemText() {
+                        @Override
+                        public String name(int index) {
+                            return "item " + index;
+                        }
+
+                        @Override
+                        public String description(int index) {
+                            return "description " + index;
+                        }
+                    });
+            BenchmarkData.insertBookings(jdbcTemplate, firstItemId, itemCount, firstBookerId, BOOKERS,
+                    bookingsPerItem);
+            BenchmarkData.insertComments(jdbcTemplate, firstItemId, itemCount, firstBookerId, 3);
+        });
+
+        context = BenchmarkApplication.start(WebApplicationType.NONE, database,
+                "--shareit.booking.index.enabled=" + bookingIndexEnabled);
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        // в приложении ленивые связи дочитываются в open-in-view сессии запроса
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public KeysetPage<DetailedBookingDto> getUserItemsBookings() {
+        return readOnly.execute(status ->
+                bookingService.getUserItemsBookings(ownerId, BookingState.ALL, null, 100));
+    }
+
+    @Benchmark
+    public List<ItemWithBookDateDto> getAllUserItems() {
+        return readOnly.execute(status -> itemService.getAllUserItems(ownerId));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка на GET /items при большом числе одновременных клиентов: обработка запросов
+ * в пуле платформенных потоков Tomcat против виртуальных потоков.
+ * Задержка базы имитируется DatabaseLatencyInjector. Режим Throughput дает пропускную способность,
+ * SampleTime - распределение задержек (p0.99 в отчете JMH).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ThreadingLoadBenchmark {
+    private static final int ITEMS = 10;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"0ms", "200ms"})
+    private String dbLatency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        String database = BenchmarkApplication.newDatabase();
+        long[] ownerId = new long[1];
+        BenchmarkApplication.seed(database, jdbcTemplate -> {
+            ownerId[0] = BenchmarkData.insertUsers(jdbcTemplate, 1);
+            long firstBookerId = BenchmarkData.insertUsers(jdbcTemplate, 10);
+            long firstItemId = BenchmarkData.insertItems(jdbcTemplate, ownerId[0], ITEMS, new BenchmarkData.ItemText() {
+                @Override
+                public String name(int index) {
+                    return "item " + index;
+                }
+
+                @Override
+                public String description(int index) {
+                    return "description " + index;
+                }
+            });
+            BenchmarkData.insertBookings(jdbcTemplate, firstItemId, ITEMS, firstBookerId, 10, 20);
+        });
+
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET, database,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=500",
+                "--benchmark.db-latency=" + dbLatency);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port") + "/items"))
+                .header("X-Sharer-User-Id", String.valueOf(ownerId[0]))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getOwnerItems() throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Неожиданный ответ " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().length();
+    }
+}
@@ -1,56 +1,159 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.service.BookingExport;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.common.idempotency.Idempotent;
+import ru.practicum.shareit.common.ratelimit.EndpointClass;
+import ru.practicum.shareit.common.ratelimit.RateLimited;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     public final BookingService bookingService;
+    private final ObjectWriter exportWriter;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.exportWriter = objectMapper.writerFor(DetailedBookingDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/{bookingId}")
     public DetailedBookingDto getBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                         @PathVariable long bookingId) {
+                                         @PathVariable long bookingId,
+                                         WebRequest request) {
+        Optional<String> eTag = bookingService.getBookingETag(userId, bookingId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return bookingService.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public List<DetailedBookingDto> getAllUserBookings(@RequestHeader(USER_ID_HEADER) long bookerId,
-                                                       @RequestParam(name = "state", defaultValue = "ALL") BookingState state) {
-        return bookingService.getUserBookings(bookerId, state);
+    @RateLimited(EndpointClass.LIST)
+    public ResponseEntity<List<DetailedBookingDto>> getAllUserBookings(
+            @RequestHeader(USER_ID_HEADER) long bookerId,
+            @RequestParam(name = "state", defaultValue = "ALL") BookingState state,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return toResponse(bookingService.getUserBookings(bookerId, state, after, limit));
     }
 
     @GetMapping("/owner")
-    public List<DetailedBookingDto> getAllUserItemsBookings(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                            @RequestParam(name = "state") BookingState state) {
-        return bookingService.getUserItemsBookings(ownerId, state);
+    @RateLimited(EndpointClass.LIST)
+    public ResponseEntity<List<DetailedBookingDto>> getAllUserItemsBookings(
+            @RequestHeader(USER_ID_HEADER) long ownerId,
+            @RequestParam(name = "state") BookingState state,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return toResponse(bookingService.getUserItemsBookings(ownerId, state, after, limit));
+    }
+
+    /**
+     * Выгрузка всех бронирований вещей пользователя в формате NDJSON (одна запись на строку).
+     * Записи пишутся в ответ по мере чтения из базы.
+     */
+    @GetMapping("/owner/export")
+    @RateLimited(EndpointClass.LIST)
+    public ResponseEntity<StreamingResponseBody> exportAllUserItemsBookings(
+            @RequestHeader(USER_ID_HEADER) long ownerId,
+            @RequestParam(name = "state", defaultValue = "ALL") BookingState state) {
+        BookingExport export = bookingService.exportUserItemsBookings(ownerId, state);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> writeNdjson(export, out));
+    }
+
+    /**
+     * Поток событий (Server-Sent Events) по бронированиям вещей пользователя
+     */
+    @GetMapping(value = "/owner/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToUserItemsBookings(@RequestHeader(USER_ID_HEADER) long ownerId) {
+        return bookingService.subscribeToUserItemsBookings(ownerId);
     }
 
     @PostMapping
+    @RateLimited(EndpointClass.WRITE)
     @ResponseStatus(HttpStatus.CREATED)
+    @Idempotent
     public DetailedBookingDto create(@RequestHeader(USER_ID_HEADER) long bookerId,
                                      @Valid @RequestBody BookingDto newBooking) {
         return bookingService.createBooking(newBooking, bookerId);
     }
 
+    @PostMapping("/batch")
+    @RateLimited(EndpointClass.WRITE)
+    @Idempotent
+    public List<BookingBatchResultDto> createBatch(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @RequestBody List<@Valid BookingDto> newBookings) {
+        return bookingService.createBookings(newBookings, userId);
+    }
+
+    @PatchMapping("/batch")
+    @RateLimited(EndpointClass.WRITE)
+    public List<BookingDecisionResultDto> processBatch(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                       @RequestParam(name = "approved") boolean approved,
+                                                       @RequestBody List<Long> bookingIds) {
+        return bookingService.processBookings(ownerId, bookingIds, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public DetailedBookingDto processBooking(@RequestHeader(USER_ID_HEADER) long ownerId,
                                              @PathVariable long bookingId,
                                              @RequestParam(name = "approved") boolean approved) {
         return bookingService.processBooking(ownerId, bookingId, approved);
     }
+
+    private void writeNdjson(BookingExport export, OutputStream out) throws IOException {
+        try (JsonGenerator generator = exportWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            export.forEach(booking -> {
+                try {
+                    exportWriter.writeValue(generator, booking);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ResponseEntity<List<DetailedBookingDto>> toResponse(KeysetPage<DetailedBookingDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dal;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Данные бронирования, нужные для его подтверждения или отклонения владельцем вещи
+ */
+public record BookingApprovalTarget(Long id,
+                                    Long itemId,
+                                    Long ownerId,
+                                    Long bookerId,
+                                    LocalDateTime start,
+                                    LocalDateTime end,
+                                    BookingStatus status) {
+}
@@ -1,108 +1,111 @@
 package ru.practicum.shareit.booking.dal;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b " +
-            "from Booking as b " +
-            "join fetch b.booker as u " +
-            "where u.id = ?1 " +
-            "order by b.start desc")
-    List<Booking> findByBookerId(Long bookerId);
-
-    @Query("select b " +
+import java.util.stream.Stream;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingViewRepository {
+    /**
+     * Размер порции строк, которую драйвер JDBC читает за одно обращение к базе при выгрузке
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Последнее начавшееся и ближайшее будущее неотклоненное бронирование
+     * для каждой вещи из списка за один запрос
+     */
+    @Query(value = "select booking_id, start_date, end_date, item_id, booker_id, status, version " +
+            "from (select b.*, " +
+            "        row_number() over (partition by b.item_id order by b.start_date desc, b.booking_id desc) as rn " +
+            "      from bookings as b " +
+            "      where b.item_id in (?1) " +
+            "        and b.start_date < ?2 " +
+            "        and b.status in ('WAITING', 'APPROVED')) as last_bookings " +
+            "where rn = 1 " +
+            "union all " +
+            "select booking_id, start_date, end_date, item_id, booker_id, status, version " +
+            "from (select b.*, " +
+            "        row_number() over (partition by b.item_id order by b.start_date, b.booking_id) as rn " +
+            "      from bookings as b " +
+            "      where b.item_id in (?1) " +
+            "        and b.start_date > ?2 " +
+            "        and b.status in ('WAITING', 'APPROVED')) as next_bookings " +
+            "where rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "b.id, b.item.id, b.booker.id, b.start, b.end, b.status) " +
             "from Booking as b " +
-            "join fetch b.booker as u " +
-            "where u.id = ?1 " +
-            " and b.start <= ?2 " +
-            " and b.end >= ?2 " +
-            "order by b.start desc")
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime now);
+            "where b.status in ?1")
+    Stream<BookingInterval> streamIntervalsByStatusIn(Collection<BookingStatus> statuses);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "b.id, b.item.id, b.booker.id, b.start, b.end, b.status) " +
             "from Booking as b " +
-            "join fetch b.booker as u " +
-            "where u.id = ?1 " +
-            " and b.end < ?2 " +
-            "order by b.start desc")
-    List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime now);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "join fetch b.booker as u " +
-            "where u.id = ?1 " +
-            " and b.start > ?2 " +
-            "order by b.start desc")
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "join fetch b.booker as u " +
-            "where u.id = ?1 " +
+            "where b.item.id in ?1 " +
             " and b.status = ?2 " +
-            "order by b.start desc")
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status);
-
-    @Query("select b " +
+            " and b.start < ?3 " +
+            " and b.end > ?4")
+    List<BookingInterval> findIntervalsByItemIdInAndStatusAndStartIsBeforeAndEndIsAfter(Collection<Long> itemIds,
+                                                                                        BookingStatus status,
+                                                                                        LocalDateTime end,
+                                                                                        LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "b.id, b.item.id, b.booker.id, b.start, b.end, b.status) " +
             "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.ownerId = ?1 " +
-            "order by b.start desc")
-    List<Booking> findByItemOwnerId(Long ownerId);
-
-    @Query("select b " +
+            "where b.item.id = ?1 " +
+            " and b.status in ?2 " +
+            " and b.start < ?3 " +
+            " and b.end > ?4")
+    List<BookingInterval> findIntervalsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId,
+                                                                                        Collection<BookingStatus> statuses,
+                                                                                        LocalDateTime end,
+                                                                                        LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.booking.dal.BookingApprovalTarget(" +
+            "b.id, i.id, i.ownerId, b.booker.id, b.start, b.end, b.status) " +
             "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.ownerId = ?1 " +
-            " and b.start <= ?2 " +
-            " and b.end >= ?2 " +
-            "order by b.start desc")
-    List<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime now);
-
-    @Query("select b " +
+            "join b.item as i " +
+            "where b.id in ?1")
+    List<BookingApprovalTarget> findApprovalTargetsByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Меняет статус только тех бронирований из списка, которые все еще находятся в статусе expected
+     *
+     * @return количество измененных бронирований
+     */
+    @Modifying
+    @Query("update Booking as b " +
+            "set b.status = ?2, b.version = b.version + 1 " +
+            "where b.id in ?1 " +
+            " and b.status = ?3")
+    int updateStatusByIdInAndStatus(Collection<Long> bookingIds, BookingStatus status, BookingStatus expected);
+
+    /**
+     * Версии бронирования и его вещи, если пользователь является бронирующим или владельцем вещи
+     */
+    @Query("select new ru.practicum.shareit.booking.dal.BookingVersion(b.version, i.version) " +
             "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.ownerId = ?1 " +
-            " and b.end < ?2 " +
-            "order by b.start desc")
-    List<Booking> findByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime now);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.ownerId = ?1 " +
-            " and b.start > ?2 " +
-            "order by b.start desc")
-    List<Booking> findByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime now);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.ownerId = ?1 " +
-            " and b.status = ?2 " +
-            "order by b.start desc")
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status);
-
-    Optional<Booking> findFirstByItemIdAndStartIsBeforeOrderByStartDesc(Long itemId,
-                                                                        LocalDateTime now);
-
-    List<Booking> findFirstByItemIdInAndStartIsBeforeOrderByStartDesc(List<Long> itemId,
-                                                                      LocalDateTime now);
-
-
-    Optional<Booking> findFirstByItemIdAndStartIsAfterOrderByStart(Long itemId,
-                                                                   LocalDateTime now);
-
-    List<Booking> findFirstByItemIdInAndStartIsAfterOrderByStart(List<Long> itemId,
-                                                                 LocalDateTime now);
-
+            "join b.item as i " +
+            "where b.id = ?1 " +
+            " and (b.booker.id = ?2 or i.ownerId = ?2)")
+    Optional<BookingVersion> findVersionByIdAndParticipant(Long bookingId, Long userId);
+
+    boolean existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(Long itemId,
+                                                                 BookingStatus status,
+                                                                 LocalDateTime end,
+                                                                 LocalDateTime start);
 
     boolean existsByBookerIdAndItemIdAndEndIsBefore(Long bookerId, Long itemId, LocalDateTime now);
 }
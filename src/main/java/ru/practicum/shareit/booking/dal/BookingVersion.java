@@ -0,0 +1,4 @@
+package ru.practicum.shareit.booking.dal;
+
+public record BookingVersion(Long version, Long itemVersion) {
+}
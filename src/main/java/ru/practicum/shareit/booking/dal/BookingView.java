@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dal;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: поля бронирования, вещи и бронирующего,
+ * выбранные одним запросом без загрузки сущностей
+ */
+public record BookingView(Long id,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          BookingStatus status,
+                          Long itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable,
+                          Long itemOwnerId,
+                          Long itemRequestId,
+                          Long bookerId,
+                          String bookerName,
+                          String bookerEmail) {
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.dal;
+
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.common.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Списки бронирований в виде проекций, отсортированные по убыванию (дата начала, id).
+ * Курсор after равен null для первой страницы, Limit.unlimited() возвращает все записи после курсора.
+ */
+public interface BookingViewRepository {
+
+    List<BookingView> findBookerBookings(Long bookerId,
+                                         BookingState state,
+                                         LocalDateTime now,
+                                         KeysetCursor after,
+                                         Limit limit);
+
+    List<BookingView> findOwnerBookings(Long ownerId,
+                                        BookingState state,
+                                        LocalDateTime now,
+                                        KeysetCursor after,
+                                        Limit limit);
+
+    List<BookingView> findViewsByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Бронирования вещей владельца для потоковой выгрузки.
+     * Строки читаются порциями по мере обработки, вызывать внутри транзакции.
+     */
+    Stream<BookingView> streamOwnerBookings(Long ownerId, BookingState state, LocalDateTime now);
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.dal;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Собирает запрос списка бронирований из условия на участника, условия на состояние
+ * и позиции курсора вместо отдельного запроса на каждое сочетание
+ */
+@RequiredArgsConstructor
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+    private static final String SELECT = "select new ru.practicum.shareit.booking.dal.BookingView(" +
+            "b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, " +
+            "u.id, u.name, u.email) " +
+            "from Booking as b " +
+            "join b.item as i " +
+            "join b.booker as u ";
+    private static final String BOOKER = "where b.booker.id = :userId ";
+    private static final String OWNER = "where i.ownerId = :userId ";
+    private static final String AFTER_CURSOR = " and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId)) ";
+    private static final String ORDER = "order by b.start desc, b.id desc";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findBookerBookings(Long bookerId,
+                                                BookingState state,
+                                                LocalDateTime now,
+                                                KeysetCursor after,
+                                                Limit limit) {
+        return pageQuery(BOOKER, bookerId, state, now, after, limit).getResultList();
+    }
+
+    @Override
+    public List<BookingView> findOwnerBookings(Long ownerId,
+                                               BookingState state,
+                                               LocalDateTime now,
+                                               KeysetCursor after,
+                                               Limit limit) {
+        return pageQuery(OWNER, ownerId, state, now, after, limit).getResultList();
+    }
+
+    @Override
+    public List<BookingView> findViewsByIdIn(Collection<Long> bookingIds) {
+        return entityManager.createQuery(SELECT + "where b.id in :ids " + ORDER, BookingView.class)
+                .setParameter("ids", bookingIds)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<BookingView> streamOwnerBookings(Long ownerId, BookingState state, LocalDateTime now) {
+        return query(SELECT + OWNER + stateCondition(state) + ORDER, ownerId, state, now)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, BookingRepository.EXPORT_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private TypedQuery<BookingView> pageQuery(String participant,
+                                              Long userId,
+                                              BookingState state,
+                                              LocalDateTime now,
+                                              KeysetCursor after,
+                                              Limit limit) {
+        String cursorCondition = after != null ? AFTER_CURSOR : "";
+        TypedQuery<BookingView> query = query(SELECT + participant + stateCondition(state) + cursorCondition + ORDER,
+                userId, state, now);
+        if (after != null) {
+            query.setParameter("afterStart", after.position())
+                    .setParameter("afterId", after.id());
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query;
+    }
+
+    private TypedQuery<BookingView> query(String jpql, Long userId, BookingState state, LocalDateTime now) {
+        TypedQuery<BookingView> query = entityManager.createQuery(jpql, BookingView.class)
+                .setParameter("userId", userId);
+        switch (state) {
+            case CURRENT, PAST, FUTURE -> query.setParameter("now", now);
+            case WAITING -> query.setParameter("status", BookingStatus.WAITING);
+            case REJECTED -> query.setParameter("status", BookingStatus.REJECTED);
+            default -> {
+            }
+        }
+        return query;
+    }
+
+    private static String stateCondition(BookingState state) {
+        return switch (state) {
+            case ALL -> "";
+            case CURRENT -> " and b.start <= :now and b.end >= :now ";
+            case PAST -> " and b.end < :now ";
+            case FUTURE -> " and b.start > :now ";
+            case WAITING, REJECTED -> " and b.status = :status ";
+        };
+    }
+}
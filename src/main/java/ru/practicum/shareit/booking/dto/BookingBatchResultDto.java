@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат обработки одного бронирования из пакета.
+ * index - позиция бронирования в запросе, status - HTTP-статус, который вернул бы POST /bookings.
+ */
+@Data
+@Builder
+public class BookingBatchResultDto {
+    private int index;
+    private int status;
+    private DetailedBookingDto booking;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат подтверждения или отклонения одного бронирования из пакета.
+ * status - HTTP-статус, который вернул бы PATCH /bookings/{bookingId}.
+ */
+@Data
+@Builder
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private int status;
+    private DetailedBookingDto booking;
+    private String error;
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.booking.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.common.AfterCommit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Шина событий бронирований внутри процесса, доставляющая их владельцам вещей по SSE.
+ * Событие публикуется после фиксации транзакции и раскладывается в ограниченные очереди
+ * подписчиков владельца без ожидания сети. Очередь подписчика отправляется клиенту в отдельном
+ * виртуальном потоке только пока в ней есть события, поэтому простаивающие подписки не занимают потоков.
+ * Подписчик, не успевающий читать события, отключается при переполнении очереди.
+ */
+@Slf4j
+@Component
+public class BookingEventBus {
+    private static final PendingEvent HEARTBEAT = new PendingEvent(null, null);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("booking-events-heartbeat").daemon().factory());
+    private final int bufferSize;
+    private final Duration emitterTimeout;
+    private final Counter evictions;
+
+    public BookingEventBus(MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.events.buffer-size:64}") int bufferSize,
+                           @Value("${shareit.booking.events.emitter-timeout:30m}") Duration emitterTimeout,
+                           @Value("${shareit.booking.events.heartbeat-interval:30s}") Duration heartbeatInterval) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeout = emitterTimeout;
+        Gauge.builder("shareit.booking.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Количество подписчиков на события бронирований")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("shareit.booking.events.evictions")
+                .description("Подписчики, отключенные из-за переполнения очереди событий")
+                .register(meterRegistry);
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Подписывает владельца вещей на события их бронирований
+     */
+    public SseEmitter subscribe(Long ownerId) {
+        return subscribe(ownerId, new SseEmitter(emitterTimeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long ownerId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(ownerId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.compute(ownerId, (id, ownerSubscribers) -> {
+            Set<Subscriber> updated = ownerSubscribers != null ? ownerSubscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+        return emitter;
+    }
+
+    /**
+     * Публикует событие для владельца вещи после фиксации текущей транзакции
+     */
+    public void publish(BookingEventType type, DetailedBookingDto booking) {
+        Long ownerId = booking.getItem().getOwnerId();
+        AfterCommit.run(() -> {
+            Set<Subscriber> ownerSubscribers = subscribers.get(ownerId);
+            if (ownerSubscribers == null) {
+                return;
+            }
+            PendingEvent event = new PendingEvent(type, booking);
+            ownerSubscribers.forEach(subscriber -> offer(subscriber, event));
+        });
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(ownerSubscribers -> ownerSubscribers.forEach(this::close));
+        senders.shutdown();
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(ownerSubscribers ->
+                ownerSubscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT)));
+    }
+
+    private void offer(Subscriber subscriber, PendingEvent event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            evictions.increment();
+            log.warn("Подписчик на события бронирований владельца {} отключен: очередь переполнена",
+                    subscriber.ownerId);
+            close(subscriber);
+            return;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                PendingEvent event;
+                while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                    subscriber.emitter.send(event.toSse());
+                }
+                subscriber.sending.set(false);
+                // событие могло прийти после опустошения очереди, но до снятия флага
+            } while (!subscriber.closed.get()
+                    && !subscriber.queue.isEmpty()
+                    && subscriber.sending.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            subscriber.sending.set(false);
+            close(subscriber);
+        }
+    }
+
+    /**
+     * Отписывает подписчика сразу, а соединение закрывает в отдельном потоке,
+     * чтобы публикующий поток не ждал отправку, в которой завис медленный клиент
+     */
+    private void close(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriber.queue.clear();
+        subscribers.computeIfPresent(subscriber.ownerId, (ownerId, ownerSubscribers) -> {
+            ownerSubscribers.remove(subscriber);
+            return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private static final class Subscriber {
+        private final Long ownerId;
+        private final SseEmitter emitter;
+        private final Queue<PendingEvent> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long ownerId, SseEmitter emitter, Queue<PendingEvent> queue) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    /**
+     * Событие в очереди подписчика. Сообщение SSE собирается при отправке:
+     * построитель SseEventBuilder нельзя отправить повторно или нескольким подписчикам.
+     */
+    private record PendingEvent(BookingEventType type, DetailedBookingDto booking) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (type == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .name(type.name())
+                    .data(booking, MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.events;
+
+public enum BookingEventType {
+    /**
+     * Создано новое бронирование
+     */
+    CREATED,
+    /**
+     * Бронирование подтверждено владельцем
+     */
+    APPROVED,
+    /**
+     * Бронирование отклонено владельцем
+     */
+    REJECTED
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.index;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+public record BookingInterval(Long id,
+                              Long itemId,
+                              Long bookerId,
+                              LocalDateTime start,
+                              LocalDateTime end,
+                              BookingStatus status) {
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus());
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.AfterCommit;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Индекс неотклоненных бронирований по вещам. Позволяет находить последнее и следующее
+ * бронирование вещи и строить календарь свободного времени без обращения к базе данных.
+ * Загружается при старте приложения и обновляется после фиксации изменений бронирований.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+    static final Set<BookingStatus> INDEXED_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final AtomicLong bookingCount = new AtomicLong();
+    private final Counter foundLookups;
+    private final Counter emptyLookups;
+    private final Counter databaseFallbacks;
+    private volatile boolean ready;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.index.enabled:true}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+
+        Gauge.builder("shareit.booking.index.items", timelines, Map::size)
+                .description("Количество вещей в индексе бронирований")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.index.bookings", bookingCount, AtomicLong::get)
+                .description("Количество бронирований в индексе")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.index.memory", this, BookingIntervalIndex::estimatedBytes)
+                .description("Оценка объема памяти, занятой индексом бронирований")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.foundLookups = Counter.builder("shareit.booking.index.lookups")
+                .description("Поиски последнего и следующего бронирования вещи по индексу")
+                .tag("result", "found")
+                .register(meterRegistry);
+        this.emptyLookups = Counter.builder("shareit.booking.index.lookups")
+                .description("Поиски последнего и следующего бронирования вещи по индексу")
+                .tag("result", "not_found")
+                .register(meterRegistry);
+        this.databaseFallbacks = Counter.builder("shareit.booking.index.fallbacks")
+                .description("Запросы свободных интервалов, выполненные по базе данных до загрузки индекса")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("Индекс бронирований отключен");
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingInterval> intervals = bookingRepository.streamIntervalsByStatusIn(INDEXED_STATUSES)) {
+                Map<Long, List<BookingInterval>> byItem = intervals
+                        .collect(Collectors.groupingBy(BookingInterval::itemId));
+                byItem.forEach((itemId, itemIntervals) -> {
+                    ItemTimeline timeline = ItemTimeline.of(itemIntervals);
+                    timelines.put(itemId, timeline);
+                    bookingCount.addAndGet(itemIntervals.size());
+                });
+            }
+        });
+        ready = true;
+        log.info("Индекс бронирований загружен: вещей {}, бронирований {}", timelines.size(), bookingCount.get());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<BookingDto> findLastBooking(Long itemId, LocalDateTime now) {
+        return count(timelines.getOrDefault(itemId, ItemTimeline.EMPTY).lastStartedBefore(now, itemId));
+    }
+
+    public Optional<BookingDto> findNextBooking(Long itemId, LocalDateTime now) {
+        return count(timelines.getOrDefault(itemId, ItemTimeline.EMPTY).firstStartingAfter(now, itemId));
+    }
+
+    /**
+     * Свободные интервалы вещи внутри [from, to) с точностью до часа. Занятыми считаются часы,
+     * которых касается ожидающее подтверждения или подтвержденное бронирование.
+     * Если индекс не загружен, интервалы строятся по бронированиям вещи из базы данных.
+     */
+    public List<FreeIntervalDto> findFreeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (ready) {
+            return timelines.getOrDefault(itemId, ItemTimeline.EMPTY).freeIntervals(from, to);
+        }
+        databaseFallbacks.increment();
+        List<BookingInterval> intervals = bookingRepository
+                .findIntervalsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(
+                        itemId,
+                        INDEXED_STATUSES,
+                        ItemTimeline.ceilToHour(to),
+                        ItemTimeline.floorToHour(from));
+        return ItemTimeline.of(intervals).freeIntervals(from, to);
+    }
+
+    /**
+     * Отражает в индексе текущее состояние бронирования после фиксации транзакции
+     */
+    public void update(Booking booking) {
+        update(BookingInterval.of(booking));
+    }
+
+    public void update(BookingInterval interval) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> apply(interval));
+    }
+
+    private long estimatedBytes() {
+        return bookingCount.get() * ItemTimeline.ENTRY_BYTES;
+    }
+
+    /**
+     * Изменения шкалы одной вещи выполняются внутри compute и потому последовательны
+     */
+    private void apply(BookingInterval interval) {
+        timelines.compute(interval.itemId(), (itemId, timeline) -> {
+            if (INDEXED_STATUSES.contains(interval.status())) {
+                ItemTimeline current = timeline != null ? timeline : new ItemTimeline();
+                bookingCount.addAndGet(current.add(interval));
+                return current;
+            }
+            if (timeline == null) {
+                return null;
+            }
+            bookingCount.addAndGet(timeline.remove(interval));
+            return timeline.isEmpty() ? null : timeline;
+        });
+    }
+
+    private Optional<BookingDto> count(Optional<BookingDto> result) {
+        (result.isPresent() ? foundLookups : emptyLookups).increment();
+        return result;
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking.index;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Бронирования одной вещи, упорядоченные по (start, id), в конкурентном списке с пропусками:
+ * добавление и удаление бронирования стоят O(log n), читатели не блокируются.
+ * Изменения выполняются последовательно (индекс вызывает их внутри compute по вещи).
+ * Время хранится в микросекундах от эпохи. Объем и стоимость изменений зависят только
+ * от числа бронирований, но не от их длительности: занятые часы вычисляются из интервалов
+ * только для запрошенного диапазона. Поиск интервалов начинается не раньше начала диапазона
+ * минус длительность самого длинного из текущих бронирований вещи.
+ */
+final class ItemTimeline {
+    /**
+     * Пустая временная шкала для вещей без бронирований, не изменяется
+     */
+    static final ItemTimeline EMPTY = new ItemTimeline();
+
+    /**
+     * Примерный размер одной записи в байтах: ключ, значение, узел списка и его индексные узлы,
+     * а также счетчик длительности
+     */
+    static final int ENTRY_BYTES = 192;
+
+    private static final long MICROS_PER_HOUR = 3_600_000_000L;
+
+    private final ConcurrentSkipListMap<Key, Entry> bookings = new ConcurrentSkipListMap<>();
+    /**
+     * Число бронирований каждой длительности. Наибольший ключ ограничивает поиск бронирований,
+     * начавшихся раньше запрошенного диапазона, и уменьшается при удалении длинных бронирований.
+     */
+    private final ConcurrentSkipListMap<Long, Integer> durations = new ConcurrentSkipListMap<>();
+
+    static ItemTimeline of(List<BookingInterval> intervals) {
+        ItemTimeline timeline = new ItemTimeline();
+        intervals.forEach(timeline::add);
+        return timeline;
+    }
+
+    int size() {
+        return bookings.size();
+    }
+
+    boolean isEmpty() {
+        return bookings.isEmpty();
+    }
+
+    /**
+     * Добавляет бронирование или заменяет его прежнее состояние
+     *
+     * @return изменение числа бронирований: 1 для нового бронирования, 0 для замены
+     */
+    int add(BookingInterval interval) {
+        long start = toMicros(interval.start());
+        long end = toMicros(interval.end());
+        // граница поиска расширяется до появления бронирования, чтобы читатели его не пропустили
+        durations.merge(end - start, 1, Integer::sum);
+        Entry previous = bookings.put(new Key(start, interval.id()),
+                new Entry(end, interval.bookerId(), interval.status()));
+        if (previous == null) {
+            return 1;
+        }
+        releaseDuration(previous.end() - start);
+        return 0;
+    }
+
+    /**
+     * Удаляет бронирование. Начало бронирования не меняется, поэтому ключ восстанавливается по интервалу.
+     *
+     * @return изменение числа бронирований: -1, если бронирование было в шкале, иначе 0
+     */
+    int remove(BookingInterval interval) {
+        long start = toMicros(interval.start());
+        Entry removed = bookings.remove(new Key(start, interval.id()));
+        if (removed == null) {
+            return 0;
+        }
+        releaseDuration(removed.end() - start);
+        return -1;
+    }
+
+    /**
+     * Длительность самого длинного бронирования в шкале в микросекундах, 0 для пустой шкалы
+     */
+    long maxDuration() {
+        Map.Entry<Long, Integer> longest = durations.lastEntry();
+        return longest != null ? longest.getKey() : 0;
+    }
+
+    /**
+     * Последнее бронирование, начавшееся раньше момента time
+     */
+    Optional<BookingDto> lastStartedBefore(LocalDateTime time, Long itemId) {
+        return toBookingDto(bookings.lowerEntry(new Key(toMicros(time), Long.MIN_VALUE)), itemId);
+    }
+
+    /**
+     * Ближайшее бронирование, начинающееся позже момента time
+     */
+    Optional<BookingDto> firstStartingAfter(LocalDateTime time, Long itemId) {
+        return toBookingDto(bookings.higherEntry(new Key(toMicros(time), Long.MAX_VALUE)), itemId);
+    }
+
+    /**
+     * Свободные интервалы внутри [from, to) с точностью до часа: час, которого касается
+     * бронирование, считается занятым целиком. Границы интервалов обрезаются по from и to.
+     */
+    List<FreeIntervalDto> freeIntervals(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        long fromHour = Math.floorDiv(fromMicros, MICROS_PER_HOUR);
+        long toHour = Math.ceilDiv(toMicros, MICROS_PER_HOUR);
+        List<FreeIntervalDto> intervals = new ArrayList<>();
+        long freeFrom = fromHour;
+        // бронирование, начавшееся раньше fromHour - maxDuration, закончилось до начала диапазона
+        Key first = new Key(fromHour * MICROS_PER_HOUR - maxDuration(), Long.MIN_VALUE);
+        Key last = new Key(toHour * MICROS_PER_HOUR, Long.MIN_VALUE);
+        for (Map.Entry<Key, Entry> booking : bookings.subMap(first, last).entrySet()) {
+            long startHour = Math.floorDiv(booking.getKey().start(), MICROS_PER_HOUR);
+            long endHour = Math.max(startHour + 1, Math.ceilDiv(booking.getValue().end(), MICROS_PER_HOUR));
+            if (endHour <= freeFrom) {
+                continue;
+            }
+            addFreeInterval(intervals, freeFrom, startHour, fromMicros, toMicros);
+            freeFrom = endHour;
+        }
+        addFreeInterval(intervals, freeFrom, toHour, fromMicros, toMicros);
+        return intervals;
+    }
+
+    static LocalDateTime floorToHour(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    static LocalDateTime ceilToHour(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(time) ? hour : hour.plusHours(1);
+    }
+
+    private void releaseDuration(long duration) {
+        durations.computeIfPresent(duration, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static Optional<BookingDto> toBookingDto(Map.Entry<Key, Entry> booking, Long itemId) {
+        if (booking == null) {
+            return Optional.empty();
+        }
+        return Optional.of(BookingDto.builder()
+                .id(booking.getKey().id())
+                .start(fromMicros(booking.getKey().start()))
+                .end(fromMicros(booking.getValue().end()))
+                .itemId(itemId)
+                .bookerId(booking.getValue().bookerId())
+                .status(booking.getValue().status())
+                .build());
+    }
+
+    private static void addFreeInterval(List<FreeIntervalDto> intervals,
+                                        long fromHour,
+                                        long toHour,
+                                        long fromMicros,
+                                        long toMicros) {
+        long start = Math.max(fromMicros, fromHour * MICROS_PER_HOUR);
+        long end = Math.min(toMicros, toHour * MICROS_PER_HOUR);
+        if (start < end) {
+            intervals.add(FreeIntervalDto.builder()
+                    .start(fromMicros(start))
+                    .end(fromMicros(end))
+                    .build());
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), 0, ZoneOffset.UTC)
+                .plus(Math.floorMod(micros, 1_000_000L), ChronoUnit.MICROS);
+    }
+
+    private record Key(long start, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Long.compare(id, other.id);
+        }
+    }
+
+    private record Entry(long end, long bookerId, BookingStatus status) {
+    }
+}
@@ -2,11 +2,14 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dal.BookingView;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.DetailedBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
@@ -35,13 +38,35 @@ public class BookingMapper {
                 .build();
     }
 
-    public static Booking mapToBooking(BookingDto bookingDto) {
+    public static DetailedBookingDto mapToDetailedBookingDto(BookingView view) {
+        return DetailedBookingDto.builder()
+                .id(view.id())
+                .start(view.start())
+                .end(view.end())
+                .item(ItemDto.builder()
+                        .id(view.itemId())
+                        .name(view.itemName())
+                        .description(view.itemDescription())
+                        .available(view.itemAvailable() != null ? view.itemAvailable() : false)
+                        .ownerId(view.itemOwnerId())
+                        .requestId(view.itemRequestId())
+                        .build())
+                .booker(UserDto.builder()
+                        .id(view.bookerId())
+                        .name(view.bookerName())
+                        .email(view.bookerEmail())
+                        .build())
+                .status(view.status())
+                .build();
+    }
+
+    public static Booking mapToBooking(BookingDto bookingDto, Item item, User booker) {
         return Booking.builder()
                 .id(bookingDto.getId())
                 .start(bookingDto.getStart())
                 .end(bookingDto.getEnd())
-                .item(Item.builder().id(bookingDto.getItemId()).build())
-                .booker(User.builder().id(bookingDto.getBookerId()).build())
+                .item(item)
+                .booker(booker)
                 .status(bookingDto.getStatus())
                 .build();
     }
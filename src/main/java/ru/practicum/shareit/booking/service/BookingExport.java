@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+
+import java.util.function.Consumer;
+
+/**
+ * Отложенная выгрузка бронирований. Записи читаются из базы и передаются
+ * получателю по одной, не накапливаясь в памяти.
+ */
+@FunctionalInterface
+public interface BookingExport {
+
+    void forEach(Consumer<DetailedBookingDto> action);
+}
@@ -1,21 +1,42 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.common.KeysetPage;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
 
     DetailedBookingDto createBooking(BookingDto bookingDto, Long bookerId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long userId);
+
     DetailedBookingDto processBooking(Long ownerId, Long bookingId, Boolean approved);
 
+    List<BookingDecisionResultDto> processBookings(Long ownerId, List<Long> bookingIds, Boolean approved);
+
     DetailedBookingDto getBookingById(Long userId, Long bookingId);
 
-    List<DetailedBookingDto> getUserBookings(Long bookerId, BookingState state);
+    /**
+     * ETag бронирования для бронирующего или владельца вещи, для остальных пользователей пустой результат
+     */
+    Optional<String> getBookingETag(Long userId, Long bookingId);
+
+    KeysetPage<DetailedBookingDto> getUserBookings(Long bookerId, BookingState state, String after, Integer limit);
+
+    KeysetPage<DetailedBookingDto> getUserItemsBookings(Long ownerId, BookingState state, String after, Integer limit);
+
+    BookingExport exportUserItemsBookings(Long ownerId, BookingState state);
 
-    List<DetailedBookingDto> getUserItemsBookings(Long ownerId, BookingState state);
+    /**
+     * Подписка владельца на события по бронированиям его вещей (создание, подтверждение, отклонение)
+     */
+    SseEmitter subscribeToUserItemsBookings(Long ownerId);
 
 }
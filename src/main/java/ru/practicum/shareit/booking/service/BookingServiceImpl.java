@@ -1,39 +1,65 @@
 package ru.practicum.shareit.booking.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dal.BookingApprovalTarget;
 import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dal.BookingView;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.events.BookingEventBus;
+import ru.practicum.shareit.booking.events.BookingEventType;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.common.KeysetPage;
 import ru.practicum.shareit.error.exceptions.*;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final BookingIntervalIndex bookingIndex;
+    private final BookingEventBus bookingEvents;
+    private final ItemReservationLocks itemReservationLocks;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public DetailedBookingDto createBooking(BookingDto newBooking, Long bookerId) {
-        User booker = userRepository.findById(bookerId)
+        User booker = userCache.findById(bookerId)
                 .orElseThrow(() -> new UserNotFoundException(bookerId));
-        Item item = itemRepository.findById(newBooking.getItemId())
+        itemReservationLocks.lockUntilCompletion(newBooking.getItemId());
+        Item item = itemRepository.findByIdForUpdate(newBooking.getItemId())
                 .orElseThrow(() -> new ItemNotFoundException(newBooking.getItemId()));
 
         if (!item.getAvailable()) {
@@ -47,16 +73,102 @@ public class BookingServiceImpl implements BookingService {
         if (newBooking.getEnd() == null) {
             throw new ValidationException("Поле 'end' должно быть заполнено");
         }
+        checkNoApprovedOverlap(item.getId(), newBooking.getStart(), newBooking.getEnd());
 
         newBooking.setStatus(BookingStatus.WAITING);
         newBooking.setBookerId(bookerId);
 
-        return BookingMapper.mapToDetailedBookingDto(
-                bookingRepository.save(BookingMapper.mapToBooking(newBooking)),
-                booker,
-                item);
+        Booking booking = bookingRepository.save(BookingMapper.mapToBooking(newBooking, item, booker));
+        bookingIndex.update(booking);
+
+        DetailedBookingDto created = BookingMapper.mapToDetailedBookingDto(booking, booker, item);
+        bookingEvents.publish(BookingEventType.CREATED, created);
+        return created;
     }
 
+    /**
+     * Создает пакет бронирований. Вещи проверяются одним запросом на весь пакет,
+     * корректные бронирования вставляются пакетами JDBC, по каждому элементу возвращается результат.
+     * Бронирующим во всех элементах, как и при создании одного бронирования, считается пользователь,
+     * выполняющий запрос; bookerId из тела запроса не учитывается.
+     */
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingDto> newBookings, Long userId) {
+        if (newBookings == null || newBookings.isEmpty()) {
+            throw new ValidationException("Список бронирований должен быть заполнен");
+        }
+        if (newBookings.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество бронирований в запросе не должно превышать " + MAX_BATCH_SIZE);
+        }
+
+        log.info("Вызвана операция пакетного бронирования {} вещей пользователем {}", newBookings.size(), userId);
+
+        User booker = userCache.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        Set<Long> itemIds = new HashSet<>();
+        for (BookingDto newBooking : newBookings) {
+            if (newBooking.getItemId() != null) {
+                itemIds.add(newBooking.getItemId());
+            }
+        }
+        itemReservationLocks.lockAllUntilCompletion(itemIds);
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<BookingInterval>> approved = findApprovedIntervals(items.keySet(), newBookings);
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[newBookings.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (int index = 0; index < newBookings.size(); index++) {
+            BookingDto newBooking = newBookings.get(index);
+            Long itemId = newBooking.getItemId();
+            Item item = itemId == null ? null : items.get(itemId);
+            if (itemId == null) {
+                results[index] = rejected(index, HttpStatus.BAD_REQUEST, "Поле 'itemId' должно быть заполнено");
+            } else if (item == null) {
+                results[index] = rejected(index, HttpStatus.NOT_FOUND, "Вещь с id = " + itemId + " не найдена");
+            } else if (!item.getAvailable()) {
+                results[index] = rejected(index, HttpStatus.BAD_REQUEST,
+                        "Доступная вещь с id = " + itemId + " не найдена");
+            } else if (newBooking.getStart() == null) {
+                results[index] = rejected(index, HttpStatus.BAD_REQUEST, "Поле 'start' должно быть заполнено");
+            } else if (newBooking.getEnd() == null) {
+                results[index] = rejected(index, HttpStatus.BAD_REQUEST, "Поле 'end' должно быть заполнено");
+            } else if (overlaps(approved.get(itemId), newBooking.getStart(), newBooking.getEnd())) {
+                results[index] = rejected(index, HttpStatus.CONFLICT,
+                        "Вещь " + itemId + " уже забронирована на пересекающийся период");
+            } else {
+                acceptedIndexes.add(index);
+                accepted.add(Booking.builder()
+                        .start(newBooking.getStart())
+                        .end(newBooking.getEnd())
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build());
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            bookingIndex.update(booking);
+            int index = acceptedIndexes.get(i);
+            DetailedBookingDto created = BookingMapper.mapToDetailedBookingDto(
+                    booking,
+                    booking.getBooker(),
+                    booking.getItem());
+            bookingEvents.publish(BookingEventType.CREATED, created);
+            results[index] = BookingBatchResultDto.builder()
+                    .index(index)
+                    .status(HttpStatus.CREATED.value())
+                    .booking(created)
+                    .build();
+        }
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public DetailedBookingDto processBooking(Long ownerId, Long bookingId, Boolean approved) {
         if (approved == null) {
             throw new ValidationException("Статус бронирования должен быть заполнен");
@@ -64,9 +176,10 @@ public class BookingServiceImpl implements BookingService {
 
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException(bookingId));
-        User booker = userRepository.findById(booking.getBooker().getId())
+        User booker = userCache.findById(booking.getBooker().getId())
                 .orElseThrow(() -> new UserNotFoundException(booking.getBooker().getId()));
-        Item item = itemRepository.findById(booking.getItem().getId())
+        itemReservationLocks.lockUntilCompletion(booking.getItem().getId());
+        Item item = itemRepository.findByIdForUpdate(booking.getItem().getId())
                 .orElseThrow(() -> new ItemNotFoundException(booking.getItem().getId()));
 
         if (!item.getAvailable()) {
@@ -78,18 +191,118 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Вещь " + item.getId() + " не принадлежит пользователю " + ownerId);
         }
 
+        if (approved && booking.getStatus() != BookingStatus.APPROVED) {
+            checkNoApprovedOverlap(item.getId(), booking.getStart(), booking.getEnd());
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingIndex.update(savedBooking);
+
+        DetailedBookingDto processed = BookingMapper.mapToDetailedBookingDto(savedBooking, booker, item);
+        bookingEvents.publish(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, processed);
+        return processed;
+    }
 
-        return BookingMapper.mapToDetailedBookingDto(
-                bookingRepository.save(booking),
-                booker,
-                item);
+    /**
+     * Подтверждает или отклоняет набор бронирований владельца. Владение проверяется одним запросом
+     * на весь набор, статус меняется одним условным UPDATE только у бронирований, ожидающих
+     * подтверждения. По каждому id возвращается результат.
+     */
+    @Transactional
+    public List<BookingDecisionResultDto> processBookings(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        if (approved == null) {
+            throw new ValidationException("Статус бронирования должен быть заполнен");
+        }
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new ValidationException("Список бронирований должен быть заполнен");
+        }
+        if (bookingIds.contains(null)) {
+            throw new ValidationException("Id бронирований должны быть указаны");
+        }
+        if (bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество бронирований в запросе не должно превышать " + MAX_BATCH_SIZE);
+        }
+
+        log.info("Вызвана операция пакетной обработки {} бронирований пользователем {}", bookingIds.size(), ownerId);
+
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, BookingApprovalTarget> targets = bookingRepository.findApprovalTargetsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingApprovalTarget::id, Function.identity()));
+        Set<Long> ownedItemIds = new HashSet<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (BookingApprovalTarget target : targets.values()) {
+            if (Objects.equals(target.ownerId(), ownerId)) {
+                ownedItemIds.add(target.itemId());
+                from = from == null || target.start().isBefore(from) ? target.start() : from;
+                to = to == null || target.end().isAfter(to) ? target.end() : to;
+            }
+        }
+        itemReservationLocks.lockAllUntilCompletion(ownedItemIds);
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(ownedItemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<BookingInterval>> approvedIntervals = approved
+                ? findApprovedIntervals(items.keySet(), from, to)
+                : new HashMap<>();
+
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Map<Long, BookingDecisionResultDto> results = new LinkedHashMap<>();
+        List<BookingApprovalTarget> accepted = new ArrayList<>();
+        for (Long bookingId : ids) {
+            BookingApprovalTarget target = targets.get(bookingId);
+            Item item = target == null ? null : items.get(target.itemId());
+            if (target == null) {
+                results.put(bookingId, rejected(bookingId, HttpStatus.BAD_REQUEST,
+                        "Бронирование с id = " + bookingId + " не найдено"));
+            } else if (!Objects.equals(target.ownerId(), ownerId) || item == null) {
+                results.put(bookingId, rejected(bookingId, HttpStatus.BAD_REQUEST,
+                        "Вещь " + target.itemId() + " не принадлежит пользователю " + ownerId));
+            } else if (!item.getAvailable()) {
+                results.put(bookingId, rejected(bookingId, HttpStatus.BAD_REQUEST,
+                        "Доступная вещь с id = " + item.getId() + " не найдена"));
+            } else if (target.status() != BookingStatus.WAITING) {
+                results.put(bookingId, rejected(bookingId, HttpStatus.CONFLICT,
+                        "Бронирование " + bookingId + " уже обработано"));
+            } else if (approved && overlaps(approvedIntervals.get(item.getId()), target.start(), target.end())) {
+                results.put(bookingId, rejected(bookingId, HttpStatus.CONFLICT,
+                        "Вещь " + item.getId() + " уже забронирована на пересекающийся период"));
+            } else {
+                results.put(bookingId, null);
+                accepted.add(target);
+                if (approved) {
+                    // подтвержденные в этом же пакете бронирования не должны пересекаться между собой
+                    approvedIntervals.computeIfAbsent(item.getId(), itemId -> new ArrayList<>())
+                            .add(toInterval(target, newStatus));
+                }
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            List<Long> acceptedIds = accepted.stream().map(BookingApprovalTarget::id).toList();
+            int updated = bookingRepository.updateStatusByIdInAndStatus(acceptedIds, newStatus, BookingStatus.WAITING);
+            if (updated != acceptedIds.size()) {
+                throw new DataConflictException("Бронирования изменились во время обработки, повторите запрос");
+            }
+            accepted.forEach(target -> bookingIndex.update(toInterval(target, newStatus)));
+            BookingEventType eventType = approved ? BookingEventType.APPROVED : BookingEventType.REJECTED;
+            for (BookingView booking : bookingRepository.findViewsByIdIn(acceptedIds)) {
+                DetailedBookingDto processed = BookingMapper.mapToDetailedBookingDto(booking);
+                bookingEvents.publish(eventType, processed);
+                results.put(booking.id(), BookingDecisionResultDto.builder()
+                        .bookingId(booking.id())
+                        .status(HttpStatus.OK.value())
+                        .booking(processed)
+                        .build());
+            }
+        }
+        return new ArrayList<>(results.values());
     }
 
     public DetailedBookingDto getBookingById(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException(bookingId));
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
         Item item = itemRepository.findById(booking.getItem().getId())
                 .orElseThrow(() -> new ItemNotFoundException(booking.getItem().getId()));
@@ -105,155 +318,187 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.mapToDetailedBookingDto(booking, user, item);
     }
 
-    public List<DetailedBookingDto> getUserBookings(Long bookerId, BookingState state) {
-        User booker = userRepository.findById(bookerId)
+    public Optional<String> getBookingETag(Long userId, Long bookingId) {
+        return userCache.findById(userId)
+                .flatMap(user -> bookingRepository.findVersionByIdAndParticipant(bookingId, userId)
+                        .map(version -> ETags.of(
+                                bookingId,
+                                version.version(),
+                                version.itemVersion(),
+                                user.getId(),
+                                user.getVersion())));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<DetailedBookingDto> getUserBookings(Long bookerId,
+                                                          BookingState state,
+                                                          String after,
+                                                          Integer limit) {
+        userCache.findById(bookerId)
                 .orElseThrow(() -> new UserNotFoundException(bookerId));
 
-        switch (state) {
-            case ALL -> {
-                return bookingRepository.findByBookerId(bookerId)
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booker,
-                                booking.getItem()))
-                        .toList();
-            }
-            case CURRENT -> {
-                return bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                                bookerId,
-                                LocalDateTime.now())
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booker,
-                                booking.getItem()))
-                        .toList();
-            }
-            case PAST -> {
-                return bookingRepository.findByBookerIdAndEndIsBefore(
-                                bookerId,
-                                LocalDateTime.now())
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booker,
-                                booking.getItem()))
-                        .toList();
-            }
-            case FUTURE -> {
-                return bookingRepository.findByBookerIdAndStartIsAfter(
-                                bookerId,
-                                LocalDateTime.now())
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booker,
-                                booking.getItem()))
-                        .toList();
-            }
-            case WAITING -> {
-                return bookingRepository.findByBookerIdAndStatus(
-                                bookerId,
-                                BookingStatus.WAITING)
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booker,
-                                booking.getItem()))
-                        .toList();
-            }
-            case REJECTED -> {
-                return bookingRepository.findByBookerIdAndStatus(
-                                bookerId,
-                                BookingStatus.REJECTED)
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booker,
-                                booking.getItem()))
-                        .toList();
-            }
-            default -> {
-                return new ArrayList<>();
-            }
-        }
+        Integer pageSize = resolvePageSize(limit);
+        List<BookingView> bookings = bookingRepository.findBookerBookings(
+                bookerId,
+                state,
+                LocalDateTime.now(),
+                KeysetCursor.decode(after),
+                queryLimit(pageSize));
+
+        return KeysetPage.of(
+                bookings,
+                pageSize,
+                BookingServiceImpl::cursorOf,
+                BookingMapper::mapToDetailedBookingDto);
     }
 
-    public List<DetailedBookingDto> getUserItemsBookings(Long ownerId, BookingState state) {
-        User owner = userRepository.findById(ownerId)
+    @Transactional(readOnly = true)
+    public KeysetPage<DetailedBookingDto> getUserItemsBookings(Long ownerId,
+                                                               BookingState state,
+                                                               String after,
+                                                               Integer limit) {
+        userCache.findById(ownerId)
                 .orElseThrow(() -> new UserNotFoundException(ownerId));
 
-        switch (state) {
-            case ALL -> {
-                return bookingRepository.findByItemOwnerId(
-                                ownerId)
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booking.getBooker(),
-                                booking.getItem()))
-                        .toList();
-            }
-            case CURRENT -> {
-                return bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
-                                ownerId,
-                                LocalDateTime.now())
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booking.getBooker(),
-                                booking.getItem()))
-                        .toList();
-            }
-            case PAST -> {
-                return bookingRepository.findByItemOwnerIdAndEndIsBefore(
-                                ownerId,
-                                LocalDateTime.now())
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booking.getBooker(),
-                                booking.getItem()))
-                        .toList();
-            }
-            case FUTURE -> {
-                return bookingRepository.findByItemOwnerIdAndStartIsAfter(
-                                ownerId,
-                                LocalDateTime.now())
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booking.getBooker(),
-                                booking.getItem()))
-                        .toList();
+        Integer pageSize = resolvePageSize(limit);
+        List<BookingView> bookings = bookingRepository.findOwnerBookings(
+                ownerId,
+                state,
+                LocalDateTime.now(),
+                KeysetCursor.decode(after),
+                queryLimit(pageSize));
+
+        return KeysetPage.of(
+                bookings,
+                pageSize,
+                BookingServiceImpl::cursorOf,
+                BookingMapper::mapToDetailedBookingDto);
+    }
+
+    @Override
+    public SseEmitter subscribeToUserItemsBookings(Long ownerId) {
+        userCache.findById(ownerId)
+                .orElseThrow(() -> new UserNotFoundException(ownerId));
+
+        log.info("Пользователь {} подписался на события по бронированиям своих вещей", ownerId);
+        return bookingEvents.subscribe(ownerId);
+    }
+
+    public BookingExport exportUserItemsBookings(Long ownerId, BookingState state) {
+        userCache.findById(ownerId)
+                .orElseThrow(() -> new UserNotFoundException(ownerId));
+
+        log.info("Вызвана операция выгрузки бронирований вещей пользователя {}", ownerId);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return action -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingView> bookings = bookingRepository.streamOwnerBookings(ownerId, state,
+                    LocalDateTime.now())) {
+                bookings.map(BookingMapper::mapToDetailedBookingDto).forEach(action);
             }
-            case WAITING -> {
-                return bookingRepository.findByItemOwnerIdAndStatus(
-                                ownerId,
-                                BookingStatus.WAITING)
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booking.getBooker(),
-                                booking.getItem()))
-                        .toList();
+        });
+    }
+
+    /**
+     * Подтвержденные бронирования вещей пакета, пересекающие общий период всех бронирований пакета
+     */
+    private Map<Long, List<BookingInterval>> findApprovedIntervals(Collection<Long> itemIds,
+                                                                   List<BookingDto> newBookings) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (BookingDto newBooking : newBookings) {
+            if (newBooking.getStart() != null && (from == null || newBooking.getStart().isBefore(from))) {
+                from = newBooking.getStart();
             }
-            case REJECTED -> {
-                return bookingRepository.findByItemOwnerIdAndStatus(
-                                ownerId,
-                                BookingStatus.REJECTED)
-                        .stream()
-                        .map(booking -> BookingMapper.mapToDetailedBookingDto(
-                                booking,
-                                booking.getBooker(),
-                                booking.getItem()))
-                        .toList();
+            if (newBooking.getEnd() != null && (to == null || newBooking.getEnd().isAfter(to))) {
+                to = newBooking.getEnd();
             }
-            default -> {
-                return new ArrayList<>();
+        }
+        return findApprovedIntervals(itemIds, from, to);
+    }
+
+    private Map<Long, List<BookingInterval>> findApprovedIntervals(Collection<Long> itemIds,
+                                                                   LocalDateTime from,
+                                                                   LocalDateTime to) {
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return new HashMap<>();
+        }
+        return bookingRepository.findIntervalsByItemIdInAndStatusAndStartIsBeforeAndEndIsAfter(
+                        itemIds,
+                        BookingStatus.APPROVED,
+                        to,
+                        from).stream()
+                .collect(Collectors.groupingBy(BookingInterval::itemId));
+    }
+
+    private static boolean overlaps(List<BookingInterval> intervals, LocalDateTime start, LocalDateTime end) {
+        if (intervals == null) {
+            return false;
+        }
+        for (BookingInterval interval : intervals) {
+            if (interval.start().isBefore(end) && interval.end().isAfter(start)) {
+                return true;
             }
         }
+        return false;
+    }
+
+    private static BookingBatchResultDto rejected(int index, HttpStatus status, String error) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    private static BookingDecisionResultDto rejected(Long bookingId, HttpStatus status, String error) {
+        return BookingDecisionResultDto.builder()
+                .bookingId(bookingId)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    private static BookingInterval toInterval(BookingApprovalTarget target, BookingStatus status) {
+        return new BookingInterval(
+                target.id(),
+                target.itemId(),
+                target.bookerId(),
+                target.start(),
+                target.end(),
+                status);
+    }
+
+    private void checkNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                itemId,
+                BookingStatus.APPROVED,
+                end,
+                start)) {
+            throw new DataConflictException("Вещь " + itemId + " уже забронирована на пересекающийся период");
+        }
+    }
+
+    /**
+     * Без параметра limit список возвращается целиком, как до появления постраничного вывода
+     */
+    private static Integer resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return null;
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Параметр 'limit' должен быть больше 0");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static Limit queryLimit(Integer pageSize) {
+        return pageSize != null ? Limit.of(pageSize + 1) : Limit.unlimited();
+    }
+
+    private static KeysetCursor cursorOf(BookingView booking) {
+        return new KeysetCursor(booking.start(), booking.id());
     }
 
 }
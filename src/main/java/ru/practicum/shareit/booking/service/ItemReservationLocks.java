@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки вещей на время транзакции бронирования.
+ * Запросы к одной вещи выстраиваются в очередь внутри процесса, поэтому конкурируют
+ * за блокировку строки в базе не более одной транзакции на полосу; запросы к разным
+ * вещам выполняются параллельно.
+ * Полоса захватывается уже внутри транзакции, и ожидающий в очереди запрос удерживает
+ * соединение из пула. Пул (spring.datasource.hikari.maximum-pool-size) должен вмещать
+ * одновременные бронирования популярных вещей вместе с остальной нагрузкой, иначе прочие
+ * запросы ждут соединение до истечения connection-timeout.
+ * Вынести захват за пределы транзакции нельзя: набор вещей при пакетном подтверждении
+ * определяется запросом в этой транзакции, а индекс интервалов бронирований обновляется
+ * после фиксации и полагается на то, что полоса к этому моменту еще удерживается.
+ */
+@Component
+public class ItemReservationLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemReservationLocks(@Value("${shareit.booking.lock-stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripeCount, 1) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Блокирует вещь до завершения текущей транзакции
+     */
+    public void lockUntilCompletion(Long itemId) {
+        lockAllUntilCompletion(List.of(itemId));
+    }
+
+    /**
+     * Блокирует набор вещей до завершения текущей транзакции.
+     * Полосы захватываются по возрастанию номера, что исключает взаимную блокировку.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+        TreeSet<Integer> stripeNumbers = new TreeSet<>();
+        for (Long itemId : itemIds) {
+            stripeNumbers.add(stripeOf(itemId));
+        }
+        for (Integer stripeNumber : stripeNumbers) {
+            ReentrantLock lock = stripes[stripeNumber];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    private int stripeOf(Long itemId) {
+        int hash = Objects.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
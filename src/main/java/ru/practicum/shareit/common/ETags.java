@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Значения ETag для условных GET-запросов, собранные из версий данных, от которых зависит ответ
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ETags {
+    private static final String SEPARATOR = "-";
+
+    public static String of(Object... parts) {
+        return Arrays.stream(parts)
+                .map(part -> Objects.toString(part, "_"))
+                .collect(Collectors.joining(SEPARATOR));
+    }
+}
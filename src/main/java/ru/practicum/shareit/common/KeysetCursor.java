@@ -0,0 +1,43 @@
+package ru.practicum.shareit.common;
+
+import ru.practicum.shareit.error.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в выборке, отсортированной по убыванию (дата, id).
+ * Передается клиенту в виде непрозрачной строки.
+ */
+public record KeysetCursor(LocalDateTime position, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = position + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return позиция курсора или null, если курсор не передан: первая страница запрашивается
+     * без условия на позицию, поэтому в нее попадают записи с любой датой
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректное значение курсора: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.common;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Формирует страницу из выборки, запрошенной с лимитом limit + 1:
+     * наличие лишней записи означает, что есть следующая страница.
+     * Если limit равен null, выборка запрошена без лимита и следующей страницы нет.
+     */
+    public static <E, T> KeysetPage<T> of(List<E> rows,
+                                          Integer limit,
+                                          Function<E, KeysetCursor> cursorOf,
+                                          Function<E, T> mapper) {
+        boolean hasNext = limit != null && rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(limit - 1)).encode() : null;
+        return new KeysetPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.error.exceptions.ValidationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Общие правила получения нескольких записей по списку id одним запросом
+ */
+@Component
+public class MultiGet {
+    private final int maxIds;
+
+    public MultiGet(@Value("${shareit.multi-get.max-ids:100}") int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Проверяет список id и возвращает id без повторов для запроса в базу
+     */
+    public Collection<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            throw new ValidationException("Параметр 'ids' должен содержать хотя бы один id и не содержать пустых");
+        }
+        if (ids.size() > maxIds) {
+            throw new ValidationException("Параметр 'ids' может содержать не больше " + maxIds + " id");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    /**
+     * Результаты в порядке запрошенных id, для отсутствующих записей found передается null
+     */
+    public static <E, R> List<R> inRequestOrder(List<Long> ids,
+                                                Collection<E> found,
+                                                Function<E, Long> idOf,
+                                                BiFunction<Long, E, R> result) {
+        Map<Long, E> byId = new HashMap<>();
+        for (E entity : found) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        return ids.stream()
+                .map(id -> result.apply(id, byId.get(id)))
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Запоминает пользователей, недавно зафиксировавших пишущую транзакцию.
+ * Пока окно не истекло, их читающие транзакции обслуживает основная база,
+ * и пользователь видит собственные изменения независимо от отставания реплики.
+ * Пользователь определяется по заголовку X-Sharer-User-Id текущего запроса.
+ */
+public class ReadYourWritesWindow implements TransactionExecutionListener {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final long MAXIMUM_SIZE = 100_000;
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesWindow(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAXIMUM_SIZE)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isOpenForCurrentUser() {
+        Long userId = currentUserId();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static Long currentUserId() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        String userId = attributes.getRequest().getHeader(USER_ID_HEADER);
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(userId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
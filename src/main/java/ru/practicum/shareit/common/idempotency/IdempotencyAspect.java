@@ -0,0 +1,127 @@
+package ru.practicum.shareit.common.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.error.exceptions.ValidationException;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Обработка заголовка Idempotency-Key для методов, помеченных {@link Idempotent}.
+ * Ключ хранилища включает метод контроллера и пользователя из X-Sharer-User-Id,
+ * поэтому одинаковые ключи разных пользователей и операций не пересекаются.
+ * Вместе с ответом хранится SHA-256 аргументов метода: повтор ключа с другим телом запроса отклоняется.
+ * Повтор получает новый объект, прочитанный из сохраненного JSON.
+ * Запросы без заголовка выполняются как обычно.
+ */
+@Aspect
+@Component
+public class IdempotencyAspect {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    /**
+     * Читает сохраненный ответ целиком, включая поля, доступные в API только для чтения (id)
+     */
+    private final ObjectMapper responseReader;
+
+    public IdempotencyAspect(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        AnnotationIntrospector introspector = objectMapper.getDeserializationConfig().getAnnotationIntrospector();
+        this.responseReader = objectMapper.copy().setAnnotationIntrospector(
+                new AnnotationIntrospectorPair(introspector, NopAnnotationIntrospector.instance) {
+                    @Override
+                    public JsonProperty.Access findPropertyAccess(Annotated annotated) {
+                        return JsonProperty.Access.AUTO;
+                    }
+                });
+    }
+
+    @Around("@annotation(ru.practicum.shareit.common.idempotency.Idempotent)")
+    public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        HttpServletRequest request = currentRequest();
+        String idempotencyKey = request != null ? request.getHeader(IDEMPOTENCY_KEY_HEADER) : null;
+        if (idempotencyKey == null) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Заголовок " + IDEMPOTENCY_KEY_HEADER +
+                    " должен содержать от 1 до " + MAX_KEY_LENGTH + " символов");
+        }
+
+        String key = joinPoint.getSignature().toShortString() + ":" +
+                request.getHeader(USER_ID_HEADER) + ":" + idempotencyKey;
+        AtomicReference<Object> executed = new AtomicReference<>();
+        byte[] body;
+        try {
+            body = store.execute(key, fingerprint(joinPoint.getArgs()), () -> {
+                Object response = proceed(joinPoint);
+                executed.set(response);
+                return write(response);
+            });
+        } catch (UndeclaredThrowableException e) {
+            throw e.getUndeclaredThrowable();
+        }
+        if (executed.get() != null) {
+            return executed.get();
+        }
+        JavaType responseType = objectMapper.constructType(
+                ((MethodSignature) joinPoint.getSignature()).getMethod().getGenericReturnType());
+        return responseReader.readValue(body, responseType);
+    }
+
+    private String fingerprint(Object[] args) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(write(args)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+}
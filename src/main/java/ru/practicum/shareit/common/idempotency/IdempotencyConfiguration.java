@@ -0,0 +1,26 @@
+package ru.practicum.shareit.common.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Хранилище ответов в памяти используется, пока в контексте нет другой реализации
+ * {@link IdempotencyStore}, например хранящей ответы в базе данных
+ */
+@Configuration
+public class IdempotencyConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(IdempotencyStore.class)
+    public InMemoryIdempotencyStore idempotencyStore(
+            @Value("${shareit.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return new InMemoryIdempotencyStore(maximumSize, ttl, meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.common.idempotency;
+
+import java.util.function.Supplier;
+
+/**
+ * Хранилище ответов по ключам идемпотентности. Ответ хранится сериализованным в JSON,
+ * поэтому изменение возвращенного клиенту объекта не меняет сохраненный ответ.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Возвращает сохраненный для ключа ответ, а если его нет - выполняет действие и сохраняет результат.
+     * Одновременные вызовы с одним ключом ждут завершения первого и получают его ответ.
+     * Если действие завершилось исключением, ответ не сохраняется.
+     *
+     * @param fingerprint хэш запроса; повтор ключа с другим хэшем отклоняется
+     * @throws ru.practicum.shareit.error.exceptions.IdempotencyKeyReuseException если ключ уже
+     *                                                                              использован для другого запроса
+     */
+    byte[] execute(String key, String fingerprint, Supplier<byte[]> action);
+}
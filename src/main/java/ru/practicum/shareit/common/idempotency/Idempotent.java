@@ -0,0 +1,15 @@
+package ru.practicum.shareit.common.idempotency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Метод контроллера, повтор которого с тем же заголовком Idempotency-Key
+ * возвращает сохраненный ответ без повторного выполнения
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
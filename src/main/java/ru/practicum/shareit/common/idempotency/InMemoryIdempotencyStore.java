@@ -0,0 +1,94 @@
+package ru.practicum.shareit.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.error.exceptions.IdempotencyKeyReuseException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище ответов в памяти процесса: ограниченный по размеру кэш с вытеснением по времени.
+ * Выполняющийся запрос отмечается в отдельной таблице, и повтор ждет завершения именно его,
+ * не блокируя запросы с другими ключами. Если первый запрос завершился исключением,
+ * один из ожидающих повторов выполняет действие сам.
+ */
+@Slf4j
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    public InMemoryIdempotencyStore(long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.replays = Counter.builder("shareit.idempotency.replays")
+                .description("Повторные запросы, получившие сохраненный ответ")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] execute(String key, String fingerprint, Supplier<byte[]> action) {
+        while (true) {
+            StoredResponse stored = responses.getIfPresent(key);
+            if (stored != null) {
+                return replay(key, fingerprint, stored);
+            }
+            InFlight request = new InFlight(fingerprint, new CompletableFuture<>());
+            InFlight running = inFlight.putIfAbsent(key, request);
+            if (running == null) {
+                return executeFirst(key, request, action);
+            }
+            checkFingerprint(key, fingerprint, running.fingerprint());
+            running.done().join();
+        }
+    }
+
+    private byte[] executeFirst(String key, InFlight request, Supplier<byte[]> action) {
+        try {
+            // первый запрос мог завершиться между проверкой кэша и занятием ключа
+            StoredResponse stored = responses.getIfPresent(key);
+            if (stored != null) {
+                return replay(key, request.fingerprint(), stored);
+            }
+            byte[] body = action.get();
+            responses.put(key, new StoredResponse(request.fingerprint(), body));
+            return body;
+        } finally {
+            inFlight.remove(key, request);
+            request.done().complete(null);
+        }
+    }
+
+    private byte[] replay(String key, String fingerprint, StoredResponse stored) {
+        checkFingerprint(key, fingerprint, stored.fingerprint());
+        replays.increment();
+        log.info("Возвращен сохраненный ответ для ключа идемпотентности {}", key);
+        return stored.body();
+    }
+
+    private static void checkFingerprint(String key, String fingerprint, String storedFingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            log.warn("Ключ идемпотентности {} повторно использован с другими параметрами запроса", key);
+            throw new IdempotencyKeyReuseException(
+                    "Ключ идемпотентности уже использован для запроса с другими параметрами");
+        }
+    }
+
+    /**
+     * Массив ответа не изменяется после сохранения: хранилище только передает его на десериализацию
+     */
+    private record StoredResponse(String fingerprint, byte[] body) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<Void> done) {
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.common.json;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+
+/**
+ * Собственные сериализаторы для горячих типов в ответах. Spring Boot подключает модуль к ObjectMapper
+ * приложения после стандартных модулей, поэтому его сериализаторы имеют приоритет.
+ * Формат JSON при этом не меняется.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.json.fast-date-time.enabled", matchIfMissing = true)
+public class JacksonConfiguration {
+
+    @Bean
+    public Module shareItJsonModule() {
+        return new SimpleModule("shareit-json")
+                .addSerializer(LocalDateTime.class, new LocalDateTimeJsonSerializer());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.common.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Запись LocalDateTime в формате ISO_LOCAL_DATE_TIME без DateTimeFormatter: цифры пишутся
+ * напрямую в буфер символов. Результат совпадает со стандартным сериализатором jackson-datatype-jsr310:
+ * секунды выводятся всегда, доли секунды - без конечных нулей.
+ * Годы вне 0000-9999, числовой формат дат и заданный через @JsonFormat формат
+ * обрабатываются стандартным сериализатором.
+ */
+public class LocalDateTimeJsonSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+    private static final int MAX_LENGTH = "uuuu-MM-ddTHH:mm:ss.nnnnnnnnn".length();
+    private static final int MAX_YEAR = 9999;
+    private static final int NANO_DIGITS = 9;
+
+    public LocalDateTimeJsonSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > MAX_YEAR || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+
+        int nano = value.getNano();
+        if (nano != 0) {
+            int digits = NANO_DIGITS;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[length++] = '.';
+            writeDigits(buffer, length, nano, digits);
+            length += digits;
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format.hasPattern() || format.hasShape() || format.hasLocale() || format.hasTimeZone()) {
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+        return this;
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
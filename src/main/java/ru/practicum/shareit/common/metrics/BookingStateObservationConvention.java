@@ -0,0 +1,29 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Добавляет к http.server.requests тег state со значением параметра запроса state.
+ * Неизвестные значения сводятся к "none", чтобы число временных рядов оставалось ограниченным.
+ * Регистрируется в {@link MetricsConfiguration}.
+ */
+public class BookingStateObservationConvention extends DefaultServerRequestObservationConvention {
+    private static final Set<String> STATES = Arrays.stream(BookingState.values())
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        String state = context.getCarrier().getParameter("state");
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of("state", state != null && STATES.contains(state) ? state : "none"));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Подробные метрики запросов, включаются shareit.metrics.enabled=true вместе с {@link ServiceTimingAspect}:
+ * тег state у http.server.requests и гистограммы для перцентилей времени ответа.
+ * Без этого свойства временные ряды http.server.requests остаются стандартными.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.metrics.enabled", havingValue = "true")
+public class MetricsConfiguration {
+    private static final Set<String> HISTOGRAM_METRICS = Set.of(
+            "http.server.requests",
+            ServiceTimingAspect.METRIC_NAME,
+            "spring.data.repository.invocations");
+
+    @Bean
+    public BookingStateObservationConvention bookingStateObservationConvention() {
+        return new BookingStateObservationConvention();
+    }
+
+    @Bean
+    public MeterFilter percentilesHistogramMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HISTOGRAM_METRICS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таймеры shareit.service вокруг методов BookingService, ItemService и UserService
+ * с тегами service, method, state (состояние бронирований из аргументов) и exception.
+ * Бин создается только при shareit.metrics.enabled=true, без него сервисы не проксируются.
+ * Таймеры кэшируются по методу, состоянию и типу исключения, чтобы не собирать
+ * и не искать их в реестре на каждом вызове.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "shareit.metrics.enabled", havingValue = "true")
+public class ServiceTimingAspect {
+    static final String METRIC_NAME = "shareit.service";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* ru.practicum.shareit.booking.service.BookingService.*(..)) " +
+            "|| execution(* ru.practicum.shareit.item.service.ItemService.*(..)) " +
+            "|| execution(* ru.practicum.shareit.user.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Class<? extends Throwable> exception = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass();
+            throw e;
+        } finally {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            sample.stop(timers.computeIfAbsent(new TimerKey(method, stateOf(joinPoint.getArgs()), exception),
+                    this::register));
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(METRIC_NAME)
+                .tag("service", key.method().getDeclaringClass().getSimpleName())
+                .tag("method", key.method().getName())
+                .tag("state", key.state() != null ? key.state().name() : "none")
+                .tag("exception", key.exception() != null ? key.exception().getSimpleName() : "none")
+                .register(meterRegistry);
+    }
+
+    private static BookingState stateOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingState state) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    private record TimerKey(Method method, BookingState state, Class<? extends Throwable> exception) {
+    }
+}
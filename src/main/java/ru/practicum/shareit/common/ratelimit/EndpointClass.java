@@ -0,0 +1,19 @@
+package ru.practicum.shareit.common.ratelimit;
+
+/**
+ * Класс эндпоинта, для каждого класса у пользователя свой лимит запросов
+ */
+public enum EndpointClass {
+    /**
+     * Поиск по тексту
+     */
+    SEARCH,
+    /**
+     * Чтение списков
+     */
+    LIST,
+    /**
+     * Изменяющие запросы
+     */
+    WRITE
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.error.exceptions.TooManyRequestsException;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверяет лимит клиента до вызова контроллера, помеченного {@link RateLimited};
+ * остальные эндпоинты не ограничиваются. Клиентом считается пользователь из X-Sharer-User-Id,
+ * а если заголовка нет или он некорректен - IP-адрес запроса, поэтому подмена заголовка не снимает
+ * ограничение. За прокси адрес клиента берется из заголовков прокси при server.forward-headers-strategy.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final UserRateLimiter rateLimiter;
+    private final Map<Method, Optional<EndpointClass>> annotatedClasses = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(UserRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Optional<EndpointClass> endpointClass = annotatedClasses.computeIfAbsent(handlerMethod.getMethod(),
+                method -> Optional.ofNullable(handlerMethod.getMethodAnnotation(RateLimited.class))
+                        .map(RateLimited::value));
+        if (endpointClass.isEmpty()) {
+            return true;
+        }
+        long wait = rateLimiter.tryAcquire(clientKey(request), endpointClass.get());
+        if (wait > 0) {
+            throw new TooManyRequestsException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999)));
+        }
+        return true;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String header = request.getHeader(USER_ID_HEADER);
+        if (header != null) {
+            try {
+                return "user:" + Long.parseLong(header);
+            } catch (NumberFormatException e) {
+                // некорректный заголовок ограничивается по адресу, как и его отсутствие
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
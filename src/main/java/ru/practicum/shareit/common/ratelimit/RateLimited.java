@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Метод контроллера, запросы к которому ограничиваются лимитом указанного класса.
+ * Методы без аннотации не ограничиваются.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+    EndpointClass value();
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок в форме GCRA: вместо числа токенов хранится теоретическое
+ * время прихода следующего запроса, и каждый запрос сдвигает его на интервал между токенами.
+ * Запрос допускается, пока это время опережает текущее не больше, чем на burst интервалов.
+ */
+final class TokenBucket {
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @return 0, если запрос допущен, иначе сколько наносекунд нужно подождать
+     */
+    long tryAcquire(long now, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > capacityNanos) {
+                return ahead - capacityNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Лимиты запросов клиентов отдельно по каждому классу эндпоинтов. Клиент - пользователь
+ * из X-Sharer-User-Id, а для запросов без него - IP-адрес (см. {@link RateLimitInterceptor}).
+ * Корзины клиента создаются при первом запросе и удаляются после простоя.
+ */
+@Slf4j
+@Component
+public class UserRateLimiter {
+    private static final Duration THROTTLED_WINDOW = Duration.ofMinutes(1);
+    private static final long MAX_PERMITS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long[] intervals = new long[EndpointClass.values().length];
+    private final long[] capacities = new long[EndpointClass.values().length];
+    private final Cache<String, TokenBucket[]> buckets;
+    private final Cache<String, Boolean> throttledClients;
+    private final Map<EndpointClass, Counter> throttled = new EnumMap<>(EndpointClass.class);
+
+    public UserRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${shareit.rate-limit.search.permits-per-second:10}") int searchRate,
+                           @Value("${shareit.rate-limit.search.burst:20}") int searchBurst,
+                           @Value("${shareit.rate-limit.list.permits-per-second:50}") int listRate,
+                           @Value("${shareit.rate-limit.list.burst:100}") int listBurst,
+                           @Value("${shareit.rate-limit.write.permits-per-second:20}") int writeRate,
+                           @Value("${shareit.rate-limit.write.burst:40}") int writeBurst,
+                           @Value("${shareit.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        budget(EndpointClass.SEARCH, searchRate, searchBurst);
+        budget(EndpointClass.LIST, listRate, listBurst);
+        budget(EndpointClass.WRITE, writeRate, writeBurst);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.throttledClients = Caffeine.newBuilder()
+                .expireAfterWrite(THROTTLED_WINDOW)
+                .build();
+
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            throttled.put(endpointClass, Counter.builder("shareit.rate-limit.throttled")
+                    .description("Запросы, отклоненные из-за превышения лимита")
+                    .tag("endpoint", endpointClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("shareit.rate-limit.throttled.users", throttledClients, Cache::estimatedSize)
+                .description("Клиенты, получавшие отказ по лимиту за последнюю минуту")
+                .register(meterRegistry);
+        Gauge.builder("shareit.rate-limit.users", buckets, Cache::estimatedSize)
+                .description("Клиенты с активными лимитами")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param clientKey ключ клиента: "user:" и id пользователя или "ip:" и адрес
+     * @return 0, если запрос клиента допущен, иначе через сколько наносекунд его можно повторить
+     */
+    public long tryAcquire(String clientKey, EndpointClass endpointClass) {
+        int index = endpointClass.ordinal();
+        long wait = buckets.get(clientKey, key -> newBuckets())[index]
+                .tryAcquire(System.nanoTime(), intervals[index], capacities[index]);
+        if (wait > 0) {
+            throttled.get(endpointClass).increment();
+            if (throttledClients.asMap().putIfAbsent(clientKey, Boolean.TRUE) == null) {
+                log.warn("Клиент {} превысил лимит запросов класса {}", clientKey, endpointClass);
+            }
+        }
+        return wait;
+    }
+
+    private void budget(EndpointClass endpointClass, int permitsPerSecond, int burst) {
+        String property = "shareit.rate-limit." + endpointClass.name().toLowerCase() + ".";
+        if (permitsPerSecond <= 0 || permitsPerSecond > MAX_PERMITS_PER_SECOND) {
+            throw new IllegalArgumentException("Параметр " + property + "permits-per-second должен быть от 1 до " +
+                    MAX_PERMITS_PER_SECOND + ", указано " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Параметр " + property + "burst должен быть не меньше 1, указано " +
+                    burst);
+        }
+        long interval = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        intervals[endpointClass.ordinal()] = interval;
+        capacities[endpointClass.ordinal()] = interval * burst;
+    }
+
+    private static TokenBucket[] newBuckets() {
+        TokenBucket[] clientBuckets = new TokenBucket[EndpointClass.values().length];
+        for (int i = 0; i < clientBuckets.length; i++) {
+            clientBuckets[i] = new TokenBucket();
+        }
+        return clientBuckets;
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.error;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -35,6 +38,14 @@ public class ErrorHandler {
         return new ErrorResponse(errorText);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleItemRequestNotFound(ItemRequestNotFoundException e) {
+        String errorText = "Запрос вещи с id = " + e.getId().toString() + " не найден";
+        log.error(errorText);
+        return new ErrorResponse(errorText);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleAvailableItemNotFound(AvailableItemNotFoundException e) {
@@ -74,6 +85,35 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ErrorResponse handleIdempotencyKeyReuse(IdempotencyKeyReuseException e) {
+        log.error(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    /**
+     * Запись изменена параллельным запросом после того, как была прочитана: клиент может повторить запрос
+     */
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        String errorText = "Данные были изменены другим запросом, повторите операцию";
+        log.error(errorText);
+        log.error(e.getMessage());
+        return new ErrorResponse(errorText);
+    }
+
+    /**
+     * Превышение лимита не логируется на каждый запрос: первый отказ пользователю логирует сам лимитер
+     */
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyRequests(TooManyRequestsException e, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return new ErrorResponse("Превышен лимит запросов, повторите через " + e.getRetryAfterSeconds() + " с");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(Throwable e) {
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.error.exceptions;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.error.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ItemRequestNotFoundException extends RuntimeException {
+    private final Long id;
+
+    public ItemRequestNotFoundException(Long id) {
+        this.id = id;
+    }
+
+}
@@ -2,14 +2,23 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.common.idempotency.Idempotent;
+import ru.practicum.shareit.common.ratelimit.EndpointClass;
+import ru.practicum.shareit.common.ratelimit.RateLimited;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/items")
@@ -24,30 +33,61 @@ public class ItemController {
     }
 
     @GetMapping
+    @RateLimited(EndpointClass.LIST)
     public List<ItemWithBookDateDto> getAllUserItems(@RequestHeader(USER_ID_HEADER) long userId) {
         return itemService.getAllUserItems(userId);
     }
 
+    /**
+     * Вещи по списку id (GET /items?ids=1,2,3) в порядке запроса
+     */
+    @GetMapping(params = "ids")
+    @RateLimited(EndpointClass.LIST)
+    public List<ItemLookupResultDto> getItemsByIds(@RequestParam(name = "ids") List<Long> itemIds) {
+        return itemService.getItemsByIds(itemIds);
+    }
+
     @GetMapping("/{itemId}")
     public ItemWithBookDateDto getItemById(@RequestHeader(USER_ID_HEADER) long userId,
-                                           @PathVariable Long itemId) {
+                                           @PathVariable Long itemId,
+                                           WebRequest request) {
+        Optional<String> eTag = itemService.getItemETag(itemId, userId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return itemService.getItemById(itemId, userId);
     }
 
+    /**
+     * Свободные интервалы вещи в периоде [from, to) с точностью до часа
+     */
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
+    @RateLimited(EndpointClass.SEARCH)
     public List<ItemDto> searchItems(@RequestHeader(USER_ID_HEADER) long userId,
-                                     @RequestParam(name = "text") String text) {
-        return itemService.searchItems(text, userId);
+                                     @RequestParam(name = "text") String text,
+                                     @RequestParam(name = "limit", required = false) Integer limit) {
+        return itemService.searchItems(text, userId, limit);
     }
 
     @PostMapping
+    @RateLimited(EndpointClass.WRITE)
     @ResponseStatus(HttpStatus.CREATED)
+    @Idempotent
     public ItemDto create(@RequestHeader(USER_ID_HEADER) long userId,
                           @Valid @RequestBody ItemDto newItem) {
         return itemService.createItem(newItem, userId);
     }
 
     @PostMapping("/{itemId}/comment")
+    @RateLimited(EndpointClass.WRITE)
     @ResponseStatus(HttpStatus.CREATED)
     public CommentDto addComment(@RequestHeader(USER_ID_HEADER) long authorId,
                                  @PathVariable Long itemId,
@@ -56,6 +96,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
+    @RateLimited(EndpointClass.WRITE)
     public ItemDto update(@RequestHeader(USER_ID_HEADER) long userId,
                           @PathVariable Long itemId,
                           @Valid @RequestBody ItemDto updItem) {
@@ -1,11 +1,22 @@
 package ru.practicum.shareit.item.dal;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    /**
+     * Отзывы о вещах из списка вместе с вещами и авторами за один запрос
+     */
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.item as i " +
+            "join fetch c.author " +
+            "where i.id in ?1 " +
+            "order by c.created, c.id")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
@@ -1,14 +1,53 @@
 package ru.practicum.shareit.item.dal;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Результат кэшируется в кэше запросов и сбрасывается Hibernate при любой записи в таблицу items
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "items-by-owner")
+    })
     List<Item> findByOwnerId(Long ownerId);
 
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id in ?1 order by i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
+
+    /**
+     * Версии данных карточки вещи без загрузки самой вещи и отзывов
+     */
+    @Query("select new ru.practicum.shareit.item.dal.ItemVersion(" +
+            "i.version, i.ownerId, count(c.id), coalesce(sum(a.version), 0L)) " +
+            "from Item as i " +
+            "left join Comment as c on c.item.id = i.id " +
+            "left join c.author as a " +
+            "where i.id = ?1 " +
+            "group by i.id, i.version, i.ownerId")
+    Optional<ItemVersion> findVersionById(Long itemId);
+
+    Stream<Item> streamByAvailableTrue();
+
     @Query(" select i " +
             "from Item as i " +
             "where ( lower(i.name) like lower(concat('%', ?1, '%')) " +
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dal;
+
+/**
+ * Данные, от которых зависит карточка вещи: версия вещи, число отзывов
+ * и сумма версий их авторов (меняется при изменении имени любого автора)
+ */
+public record ItemVersion(Long version,
+                          Long ownerId,
+                          Long commentCount,
+                          Long commentAuthorVersions) {
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат поиска одной вещи из списка id.
+ * status - HTTP-статус, который вернул бы GET /items/{itemId}, item заполнен только при 200.
+ */
+@Data
+@Builder
+public class ItemLookupResultDto {
+    private Long id;
+    private int status;
+    private ItemDto item;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -25,6 +26,15 @@ public class ItemMapper {
     public static ItemWithBookDateDto mapToItemWithBookDateDto(Item item,
                                                                Booking lastBooking,
                                                                Booking nextBooking) {
+        return mapToItemWithBookDateDto(
+                item,
+                lastBooking != null ? BookingMapper.mapToBookingDto(lastBooking) : null,
+                nextBooking != null ? BookingMapper.mapToBookingDto(nextBooking) : null);
+    }
+
+    public static ItemWithBookDateDto mapToItemWithBookDateDto(Item item,
+                                                               BookingDto lastBooking,
+                                                               BookingDto nextBooking) {
         return ItemWithBookDateDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -32,8 +42,8 @@ public class ItemMapper {
                 .available(item.getAvailable() != null ? item.getAvailable() : false)
                 .ownerId(item.getOwnerId())
                 .requestId(item.getRequestId())
-                .lastBooking(lastBooking != null ? BookingMapper.mapToBookingDto(lastBooking) : null)
-                .nextBooking(nextBooking != null ? BookingMapper.mapToBookingDto(nextBooking) : null)
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .build();
     }
 
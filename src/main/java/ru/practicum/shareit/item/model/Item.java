@@ -5,10 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,4 +36,8 @@ public class Item {
 
     @Column(name = "request_id", nullable = false)
     private Long requestId;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,261 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.AfterCommit;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный триграммный индекс доступных вещей.
+ * Сохраняет семантику поиска подстроки без учета регистра в названии или описании:
+ * триграммы запроса отбирают кандидатов, а каждый кандидат проверяется на вхождение подстроки.
+ * Обновления одной вещи могут прийти после фиксации в любом порядке, поэтому индекс помнит
+ * версию вещи и пропускает устаревшие изменения с версией ниже уже отраженной.
+ * Индекс хранит неизменяемые снимки вещей, а поиск возвращает новые ItemDto,
+ * поэтому изменение результата вызывающим кодом не затрагивает индекс.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int GRAM = 3;
+    private static final int MAX_RANK_VALUE = (1 << 20) - 1;
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, SearchDocument> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    /**
+     * Версии вещей, ставших недоступными после загрузки индекса: документа у них нет
+     */
+    private final Map<Long, Long> hiddenVersions = new HashMap<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.item.search.index.enabled:true}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("Поисковый индекс вещей отключен");
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Item> items = itemRepository.streamByAvailableTrue()) {
+                items.forEach(this::apply);
+            }
+        });
+        ready = true;
+        log.info("Поисковый индекс вещей загружен: вещей {}, триграмм {}", documents.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Отражает в индексе текущее состояние вещи после фиксации транзакции
+     */
+    public void update(Item item) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> apply(item));
+    }
+
+    /**
+     * Находит не более limit доступных вещей, в названии или описании которых встречается text.
+     * Вещи с совпадением в названии идут первыми, затем - с более ранним вхождением.
+     */
+    public List<ItemDto> search(String text, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+        PriorityQueue<RankedDocument> top = new PriorityQueue<>(Comparator.reverseOrder());
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                documents.values().forEach(document -> offer(top, document, query, limit));
+            } else {
+                for (long id : candidates(query)) {
+                    offer(top, documents.get(id), query, limit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<RankedDocument> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.naturalOrder());
+        return ranked.stream()
+                .map(rankedDocument -> rankedDocument.document().item().toDto())
+                .toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (isStale(item)) {
+                log.debug("Пропущено устаревшее обновление вещи {} версии {}", item.getId(), item.getVersion());
+                return;
+            }
+            SearchDocument previous = documents.remove(item.getId());
+            if (previous != null) {
+                for (long gram : previous.grams()) {
+                    PostingList list = postings.get(gram);
+                    list.remove(item.getId());
+                    if (list.size() == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                SearchDocument document = SearchDocument.of(item);
+                documents.put(item.getId(), document);
+                for (long gram : document.grams()) {
+                    postings.computeIfAbsent(gram, key -> new PostingList()).add(item.getId());
+                }
+                hiddenVersions.remove(item.getId());
+            } else if (item.getVersion() != null) {
+                hiddenVersions.put(item.getId(), item.getVersion());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isStale(Item item) {
+        SearchDocument indexed = documents.get(item.getId());
+        Long indexedVersion = indexed != null ? indexed.version() : hiddenVersions.get(item.getId());
+        return indexedVersion != null && item.getVersion() != null && item.getVersion() < indexedVersion;
+    }
+
+    private long[] candidates(String query) {
+        long[] grams = trigrams(query);
+        PostingList[] lists = new PostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+        PostingList smallest = lists[0];
+        long[] result = new long[smallest.size()];
+        int[] cursors = new int[lists.length];
+        int count = 0;
+        outer:
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            for (int j = 1; j < lists.length; j++) {
+                cursors[j] = lists[j].seek(id, cursors[j]);
+                if (cursors[j] >= lists[j].size() || lists[j].get(cursors[j]) != id) {
+                    continue outer;
+                }
+            }
+            result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static void offer(PriorityQueue<RankedDocument> top, SearchDocument document, String query, int limit) {
+        int namePosition = document.name().indexOf(query);
+        int descriptionPosition = namePosition < 0 ? document.description().indexOf(query) : -1;
+        if (namePosition < 0 && descriptionPosition < 0) {
+            return;
+        }
+        long rank = namePosition >= 0
+                ? ((long) Math.min(namePosition, MAX_RANK_VALUE) << 20)
+                : (1L << 40) | ((long) Math.min(descriptionPosition, MAX_RANK_VALUE) << 20);
+        rank |= Math.min(document.name().length(), MAX_RANK_VALUE);
+
+        RankedDocument candidate = new RankedDocument(rank, document);
+        if (top.size() < limit) {
+            top.add(candidate);
+        } else if (candidate.compareTo(top.peek()) < 0) {
+            top.poll();
+            top.add(candidate);
+        }
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private record SearchDocument(ItemSnapshot item, Long version, String name, String description, long[] grams) {
+
+        static SearchDocument of(Item item) {
+            String name = item.getName().toLowerCase(Locale.ROOT);
+            String description = item.getDescription().toLowerCase(Locale.ROOT);
+            long[] grams = Stream.of(name, description)
+                    .flatMapToLong(field -> Arrays.stream(trigrams(field)))
+                    .distinct()
+                    .toArray();
+            return new SearchDocument(ItemSnapshot.of(item), item.getVersion(), name, description, grams);
+        }
+    }
+
+    private record ItemSnapshot(Long id, String name, String description, Boolean available,
+                                Long ownerId, Long requestId) {
+
+        static ItemSnapshot of(Item item) {
+            return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getOwnerId(), item.getRequestId());
+        }
+
+        ItemDto toDto() {
+            return ItemDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .ownerId(ownerId)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+
+    private record RankedDocument(long rank, SearchDocument document) implements Comparable<RankedDocument> {
+
+        @Override
+        public int compareTo(RankedDocument other) {
+            int byRank = Long.compare(rank, other.rank);
+            return byRank != 0 ? byRank : Long.compare(document.item().id(), other.document.item().id());
+        }
+    }
+}
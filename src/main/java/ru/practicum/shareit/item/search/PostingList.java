@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список id вещей, содержащих одну триграмму.
+ * Новые вещи получают большие id, поэтому добавление обычно сводится к записи в конец массива.
+ */
+final class PostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long get(int position) {
+        return ids[position];
+    }
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, id);
+            return;
+        }
+        insertAt(size, id);
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Позиция первого элемента, не меньшего id, начиная с from (галопирующий поиск)
+     */
+    int seek(long id, int from) {
+        int step = 1;
+        int high = from;
+        while (high < size && ids[high] < id) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int position = Arrays.binarySearch(ids, from, Math.min(high + 1, size), id);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void insertAt(int position, long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
 
@@ -12,7 +16,22 @@ public interface ItemService {
 
     ItemWithBookDateDto getItemById(Long itemId, Long userId);
 
-    List<ItemDto> searchItems(String text, Long userId);
+    /**
+     * Вещи по списку id в порядке запроса, для ненайденных - результат со статусом 404
+     */
+    List<ItemLookupResultDto> getItemsByIds(List<Long> itemIds);
+
+    /**
+     * ETag карточки вещи для пользователя, пустой результат, если вещь не найдена
+     */
+    Optional<String> getItemETag(Long itemId, Long userId);
+
+    /**
+     * Свободные интервалы вещи внутри [from, to) с точностью до часа
+     */
+    List<FreeIntervalDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemDto> searchItems(String text, Long userId, Integer limit);
 
     ItemDto createItem(ItemDto newItem, Long userId);
 
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.MultiGet;
 import ru.practicum.shareit.error.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.error.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.error.exceptions.UserNotFoundException;
@@ -13,28 +19,37 @@ import ru.practicum.shareit.error.exceptions.ValidationException;
 import ru.practicum.shareit.item.dal.CommentRepository;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemLookupResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int DEFAULT_SEARCH_LIMIT = 100;
+    private static final int MAX_SEARCH_LIMIT = 1000;
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final BookingIntervalIndex bookingIndex;
+    private final ItemSearchIndex searchIndex;
+    private final MultiGet multiGet;
 
+    @Transactional(readOnly = true)
     public List<ItemWithBookDateDto> getAllUserItems(Long userId) {
         List<ItemWithBookDateDto> itemWithBookDateDto = new ArrayList<>();
         List<Item> items = itemRepository.findByOwnerId(userId);
@@ -46,28 +61,35 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .toList();
 
+        Map<Long, List<CommentDto>> comments = findComments(itemIds);
+
         LocalDateTime now = LocalDateTime.now();
-        Map<Long, Booking> lastBookings = bookingRepository
-                .findFirstByItemIdInAndStartIsBeforeOrderByStartDesc(itemIds, now)
-                .stream()
-                .collect(Collectors.toMap(
-                        entry -> entry.getItem().getId(),
-                        entry -> entry
-                ));
+        if (bookingIndex.isReady()) {
+            for (Item item : items) {
+                ItemWithBookDateDto itemDto = ItemMapper.mapToItemWithBookDateDto(
+                        item,
+                        bookingIndex.findLastBooking(item.getId(), now).orElse(null),
+                        bookingIndex.findNextBooking(item.getId(), now).orElse(null));
+                itemDto.setComments(comments.getOrDefault(item.getId(), List.of()));
+                itemWithBookDateDto.add(itemDto);
+            }
+            return itemWithBookDateDto;
+        }
 
-        Map<Long, Booking> nextBookings = bookingRepository
-                .findFirstByItemIdInAndStartIsAfterOrderByStart(itemIds, now)
-                .stream()
-                .collect(Collectors.toMap(
-                        entry -> entry.getItem().getId(),
-                        entry -> entry
-                ));
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(itemIds, now)) {
+            (booking.getStart().isBefore(now) ? lastBookings : nextBookings)
+                    .put(booking.getItem().getId(), booking);
+        }
 
         for (Item item : items) {
-            itemWithBookDateDto.add(ItemMapper.mapToItemWithBookDateDto(
+            ItemWithBookDateDto itemDto = ItemMapper.mapToItemWithBookDateDto(
                     item,
                     lastBookings.get(item.getId()),
-                    nextBookings.get(item.getId())));
+                    nextBookings.get(item.getId()));
+            itemDto.setComments(comments.getOrDefault(item.getId(), List.of()));
+            itemWithBookDateDto.add(itemDto);
         }
 
         return itemWithBookDateDto;
@@ -77,39 +99,73 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(itemId));
 
-        List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
-                .map(CommentMapper::mapToCommentDto)
-                .toList();
-
-        Optional<Booking> lastBooking = Optional.empty();
-        Optional<Booking> nextNearestBooking = Optional.empty();
+        List<CommentDto> comments = findComments(List.of(itemId)).getOrDefault(itemId, List.of());
 
-        LocalDateTime now = LocalDateTime.now();
-        if (Objects.equals(item.getOwnerId(), userId)) {
-            lastBooking = bookingRepository.findFirstByItemIdAndStartIsBeforeOrderByStartDesc(
-                    itemId,
-                    now);
-
-            nextNearestBooking = bookingRepository.findFirstByItemIdAndStartIsAfterOrderByStart(
-                    itemId,
-                    now);
-        }
+        LastAndNextBookings bookings = Objects.equals(item.getOwnerId(), userId)
+                ? findLastAndNextBookings(itemId, LocalDateTime.now())
+                : LastAndNextBookings.NONE;
 
         ItemWithBookDateDto itemDto = ItemMapper.mapToItemWithBookDateDto(
                 item,
-                lastBooking.orElse(null),
-                nextNearestBooking.orElse(null));
+                bookings.last(),
+                bookings.next());
 
         itemDto.setComments(comments);
         return itemDto;
     }
 
-    public List<ItemDto> searchItems(String text, Long userId) {
+    @Transactional(readOnly = true)
+    public List<ItemLookupResultDto> getItemsByIds(List<Long> itemIds) {
+        List<Item> items = itemRepository.findAllById(multiGet.distinctIds(itemIds));
+        return MultiGet.inRequestOrder(itemIds, items, Item::getId, (itemId, item) -> ItemLookupResultDto.builder()
+                .id(itemId)
+                .status(item != null ? HttpStatus.OK.value() : HttpStatus.NOT_FOUND.value())
+                .item(item != null ? ItemMapper.mapToItemDto(item) : null)
+                .build());
+    }
+
+    public Optional<String> getItemETag(Long itemId, Long userId) {
+        return itemRepository.findVersionById(itemId)
+                .map(version -> {
+                    LastAndNextBookings bookings = Objects.equals(version.ownerId(), userId)
+                            ? findLastAndNextBookings(itemId, LocalDateTime.now())
+                            : LastAndNextBookings.NONE;
+                    return ETags.of(
+                            itemId,
+                            version.version(),
+                            version.commentCount(),
+                            version.commentAuthorVersions(),
+                            bookings.last() != null ? bookings.last().getId() : null,
+                            bookings.last() != null ? bookings.last().getStatus() : null,
+                            bookings.next() != null ? bookings.next().getId() : null,
+                            bookings.next() != null ? bookings.next().getStatus() : null);
+                });
+    }
+
+    public List<FreeIntervalDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше его окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(itemId);
+        }
+
+        log.info("Вызвана операция получения свободного времени вещи {} c {} по {}", itemId, from, to);
+        return bookingIndex.findFreeIntervals(itemId, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItems(String text, Long userId, Integer limit) {
         if (text == null || text.isEmpty()) {
             return new ArrayList<>();
         }
+        int resultSize = resolveSearchLimit(limit);
+        if (searchIndex.isReady()) {
+            return searchIndex.search(text, resultSize);
+        }
         return itemRepository.search(text)
                 .stream()
+                .limit(resultSize)
                 .map(ItemMapper::mapToItemDto)
                 .toList();
     }
@@ -118,12 +174,14 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto createItem(ItemDto newItem, Long userId) {
         validateDataCreation(newItem, userId);
         newItem.setOwnerId(userId);
-        return ItemMapper.mapToItemDto(itemRepository.save(ItemMapper.mapToItem(newItem)));
+        Item item = itemRepository.save(ItemMapper.mapToItem(newItem));
+        searchIndex.update(item);
+        return ItemMapper.mapToItemDto(item);
     }
 
     @Transactional
     public CommentDto addComment(Long authorId, Long itemId, CommentDto newComment) {
-        User author = userRepository.findById(authorId)
+        User author = userCache.findById(authorId)
                 .orElseThrow(() -> new UserNotFoundException(authorId));
 
         if (!bookingRepository.existsByBookerIdAndItemIdAndEndIsBefore(authorId, itemId, LocalDateTime.now())) {
@@ -161,7 +219,49 @@ public class ItemServiceImpl implements ItemService {
             itemToUpdate.setAvailable(updItem.getAvailable());
         }
 
-        return ItemMapper.mapToItemDto(itemRepository.save(itemToUpdate));
+        Item item = itemRepository.save(itemToUpdate);
+        searchIndex.update(item);
+        return ItemMapper.mapToItemDto(item);
+    }
+
+    private LastAndNextBookings findLastAndNextBookings(Long itemId, LocalDateTime now) {
+        if (bookingIndex.isReady()) {
+            return new LastAndNextBookings(
+                    bookingIndex.findLastBooking(itemId, now).orElse(null),
+                    bookingIndex.findNextBooking(itemId, now).orElse(null));
+        }
+        BookingDto lastBooking = null;
+        BookingDto nextBooking = null;
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(List.of(itemId), now)) {
+            if (booking.getStart().isBefore(now)) {
+                lastBooking = BookingMapper.mapToBookingDto(booking);
+            } else {
+                nextBooking = BookingMapper.mapToBookingDto(booking);
+            }
+        }
+        return new LastAndNextBookings(lastBooking, nextBooking);
+    }
+
+    /**
+     * Отзывы о вещах из списка, сгруппированные по id вещи
+     */
+    private Map<Long, List<CommentDto>> findComments(Collection<Long> itemIds) {
+        Map<Long, List<CommentDto>> comments = new HashMap<>();
+        for (Comment comment : commentRepository.findByItemIdIn(itemIds)) {
+            comments.computeIfAbsent(comment.getItem().getId(), id -> new ArrayList<>())
+                    .add(CommentMapper.mapToCommentDto(comment));
+        }
+        return comments;
+    }
+
+    private static int resolveSearchLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_SEARCH_LIMIT;
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Параметр 'limit' должен быть больше 0");
+        }
+        return Math.min(limit, MAX_SEARCH_LIMIT);
     }
 
     private void validateDataCreation(ItemDto item, Long userId) {
@@ -171,7 +271,7 @@ public class ItemServiceImpl implements ItemService {
 
         log.info("Вызвана операция создания вещи {}", item.getName());
 
-        if (userRepository.findById(userId).isEmpty()) {
+        if (userCache.findById(userId).isEmpty()) {
             throw new UserNotFoundException(userId);
         }
 
@@ -203,4 +303,8 @@ public class ItemServiceImpl implements ItemService {
         }
 
     }
+
+    private record LastAndNextBookings(BookingDto last, BookingDto next) {
+        static final LastAndNextBookings NONE = new LastAndNextBookings(null, null);
+    }
 }
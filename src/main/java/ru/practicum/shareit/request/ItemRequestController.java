@@ -1,12 +1,72 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.common.ratelimit.EndpointClass;
+import ru.practicum.shareit.common.ratelimit.RateLimited;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private final ItemRequestService requestService;
+
+    @Autowired
+    public ItemRequestController(ItemRequestService requestService) {
+        this.requestService = requestService;
+    }
+
+    @PostMapping
+    @RateLimited(EndpointClass.WRITE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDto create(@RequestHeader(USER_ID_HEADER) long userId,
+                                 @Valid @RequestBody ItemRequestDto newRequest) {
+        return requestService.createRequest(newRequest, userId);
+    }
+
+    @GetMapping
+    @RateLimited(EndpointClass.LIST)
+    public ResponseEntity<List<ItemRequestDto>> getUserRequests(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return toResponse(requestService.getUserRequests(userId, after, limit));
+    }
+
+    /**
+     * Запросы остальных пользователей постранично: курсор следующей страницы
+     * возвращается в заголовке X-Next-Cursor и передается в параметре after
+     */
+    @GetMapping("/all")
+    @RateLimited(EndpointClass.LIST)
+    public ResponseEntity<List<ItemRequestDto>> getOtherUsersRequests(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return toResponse(requestService.getOtherUsersRequests(userId, after, limit));
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getById(@RequestHeader(USER_ID_HEADER) long userId,
+                                  @PathVariable Long requestId) {
+        return requestService.getRequestById(requestId, userId);
+    }
+
+    private static ResponseEntity<List<ItemRequestDto>> toResponse(KeysetPage<ItemRequestDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
 }
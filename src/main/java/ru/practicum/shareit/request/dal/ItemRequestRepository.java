@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request.dal;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    /**
+     * Первая страница запросов пользователя в порядке убывания
+     */
+    @Query("select r from ItemRequest as r " +
+            "where r.requestorId = ?1 " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestorId(Long requestorId, Limit limit);
+
+    /**
+     * Запросы пользователя после позиции курсора (afterCreated, afterId) в порядке убывания
+     */
+    @Query("select r from ItemRequest as r " +
+            "where r.requestorId = ?1 " +
+            " and r.created <= ?2 " +
+            " and (r.created < ?2 or r.id < ?3) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestorIdAfter(Long requestorId,
+                                             LocalDateTime afterCreated,
+                                             Long afterId,
+                                             Limit limit);
+
+    /**
+     * Первая страница запросов остальных пользователей в порядке убывания
+     */
+    @Query("select r from ItemRequest as r " +
+            "where r.requestorId <> ?1 " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestorIdNot(Long requestorId, Limit limit);
+
+    /**
+     * Запросы остальных пользователей после позиции курсора (afterCreated, afterId) в порядке убывания
+     */
+    @Query("select r from ItemRequest as r " +
+            "where r.requestorId <> ?1 " +
+            " and r.created <= ?2 " +
+            " and (r.created < ?2 or r.id < ?3) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestorIdNotAfter(Long requestorId,
+                                                LocalDateTime afterCreated,
+                                                Long afterId,
+                                                Limit limit);
+}
@@ -1,20 +1,25 @@
 package ru.practicum.shareit.request.dto;
 
-import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
 import lombok.Builder;
 import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @Data
 @Builder
 public class ItemRequestDto {
-    @NotNull
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
+    @NotBlank
     private String description;
-    private Long requestor;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long requestorId;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime created;
-}
\ No newline at end of file
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<ItemDto> items;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.request.mapper;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemRequestMapper {
+
+    public static ItemRequestDto mapToItemRequestDto(ItemRequest request, List<ItemDto> items) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requestorId(request.getRequestorId())
+                .created(request.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemRequest mapToItemRequest(ItemRequestDto requestDto, Long requestorId, LocalDateTime created) {
+        return ItemRequest.builder()
+                .description(requestDto.getDescription())
+                .requestorId(requestorId)
+                .created(created)
+                .build();
+    }
+}
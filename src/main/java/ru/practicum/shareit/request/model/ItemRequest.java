@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Entity
+@Table(name = "requests")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "request_id")
+    private Long id;
+
+    @Column(name = "description", nullable = false)
+    private String description;
+
+    @Column(name = "requestor_id", nullable = false)
+    private Long requestorId;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
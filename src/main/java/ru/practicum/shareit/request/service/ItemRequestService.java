@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+public interface ItemRequestService {
+
+    ItemRequestDto createRequest(ItemRequestDto newRequest, Long requestorId);
+
+    /**
+     * Запросы пользователя с вещами, добавленными в ответ на них, от новых к старым
+     */
+    KeysetPage<ItemRequestDto> getUserRequests(Long requestorId, String after, Integer limit);
+
+    /**
+     * Запросы остальных пользователей с вещами, добавленными в ответ на них, от новых к старым
+     */
+    KeysetPage<ItemRequestDto> getOtherUsersRequests(Long userId, String after, Integer limit);
+
+    ItemRequestDto getRequestById(Long requestId, Long userId);
+
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.error.exceptions.ItemRequestNotFoundException;
+import ru.practicum.shareit.error.exceptions.UserNotFoundException;
+import ru.practicum.shareit.error.exceptions.ValidationException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final UserCache userCache;
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(ItemRequestDto newRequest, Long requestorId) {
+        userCache.findById(requestorId)
+                .orElseThrow(() -> new UserNotFoundException(requestorId));
+        if (newRequest.getDescription() == null || newRequest.getDescription().isBlank()) {
+            throw new ValidationException("Поле 'description' должно быть заполнено");
+        }
+
+        log.info("Вызвана операция создания запроса вещи пользователем {}", requestorId);
+
+        // время хранится в базе с точностью до микросекунд, курсор должен совпадать с ним
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ItemRequest request = requestRepository.save(
+                ItemRequestMapper.mapToItemRequest(newRequest, requestorId, created));
+        return ItemRequestMapper.mapToItemRequestDto(request, List.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ItemRequestDto> getUserRequests(Long requestorId, String after, Integer limit) {
+        userCache.findById(requestorId)
+                .orElseThrow(() -> new UserNotFoundException(requestorId));
+
+        int pageSize = resolvePageSize(limit);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<ItemRequest> requests = cursor == null
+                ? requestRepository.findByRequestorId(requestorId, Limit.of(pageSize + 1))
+                : requestRepository.findByRequestorIdAfter(
+                        requestorId,
+                        cursor.position(),
+                        cursor.id(),
+                        Limit.of(pageSize + 1));
+        return toPage(requests, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ItemRequestDto> getOtherUsersRequests(Long userId, String after, Integer limit) {
+        userCache.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+
+        int pageSize = resolvePageSize(limit);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<ItemRequest> requests = cursor == null
+                ? requestRepository.findByRequestorIdNot(userId, Limit.of(pageSize + 1))
+                : requestRepository.findByRequestorIdNotAfter(
+                        userId,
+                        cursor.position(),
+                        cursor.id(),
+                        Limit.of(pageSize + 1));
+        return toPage(requests, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto getRequestById(Long requestId, Long userId) {
+        userCache.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        ItemRequest request = requestRepository.findById(requestId)
+                .orElseThrow(() -> new ItemRequestNotFoundException(requestId));
+
+        return ItemRequestMapper.mapToItemRequestDto(
+                request,
+                findItems(List.of(requestId)).getOrDefault(requestId, List.of()));
+    }
+
+    /**
+     * Страница запросов с вещами: вещи всех запросов страницы читаются одним запросом request_id in (...)
+     */
+    private KeysetPage<ItemRequestDto> toPage(List<ItemRequest> requests, int pageSize) {
+        List<ItemRequest> pageRequests = requests.size() > pageSize ? requests.subList(0, pageSize) : requests;
+        Map<Long, List<ItemDto>> items = findItems(pageRequests.stream()
+                .map(ItemRequest::getId)
+                .toList());
+        return KeysetPage.of(
+                requests,
+                pageSize,
+                request -> new KeysetCursor(request.getCreated(), request.getId()),
+                request -> ItemRequestMapper.mapToItemRequestDto(
+                        request,
+                        items.getOrDefault(request.getId(), List.of())));
+    }
+
+    private Map<Long, List<ItemDto>> findItems(List<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<ItemDto>> items = new HashMap<>();
+        for (Item item : itemRepository.findByRequestIdIn(requestIds)) {
+            items.computeIfAbsent(item.getRequestId(), requestId -> new ArrayList<>())
+                    .add(ItemMapper.mapToItemDto(item));
+        }
+        return items;
+    }
+
+    private static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Параметр 'limit' должен быть больше 0");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
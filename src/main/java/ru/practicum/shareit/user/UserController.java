@@ -4,10 +4,16 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.common.idempotency.Idempotent;
+import ru.practicum.shareit.common.ratelimit.EndpointClass;
+import ru.practicum.shareit.common.ratelimit.RateLimited;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserLookupResultDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -21,17 +27,33 @@ public class UserController {
     }
 
     @GetMapping
+    @RateLimited(EndpointClass.LIST)
     public List<UserDto> getAllUsers() {
         return userService.getAllUsers();
     }
 
+    /**
+     * Пользователи по списку id (GET /users?ids=1,2,3) в порядке запроса
+     */
+    @GetMapping(params = "ids")
+    @RateLimited(EndpointClass.LIST)
+    public List<UserLookupResultDto> getByIds(@RequestParam(name = "ids") List<Long> userIds) {
+        return userService.getUsersByIds(userIds);
+    }
+
     @GetMapping("/{userId}")
-    public UserDto getById(@PathVariable Long userId) {
+    public UserDto getById(@PathVariable Long userId,
+                           WebRequest request) {
+        Optional<String> eTag = userService.getUserETag(userId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return userService.getUserById(userId);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @Idempotent
     public UserDto create(@Valid @RequestBody UserDto newUser) {
         return userService.createUser(newUser);
     }
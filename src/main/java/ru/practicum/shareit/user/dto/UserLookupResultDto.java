@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат поиска одного пользователя из списка id.
+ * status - HTTP-статус, который вернул бы GET /users/{userId}, user заполнен только при 200.
+ */
+@Data
+@Builder
+public class UserLookupResultDto {
+    private Long id;
+    private int status;
+    private UserDto user;
+}
@@ -6,10 +6,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,4 +29,8 @@ public class User {
     @Email
     @Column(name = "email", nullable = false)
     private String email;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.AfterCommit;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Кэш пользователей перед UserRepository.findById.
+ * Запоминает и отсутствующих пользователей (на более короткий срок), чтобы запросы
+ * с несуществующим X-Sharer-User-Id не доходили до базы данных.
+ * В кэше хранятся отсоединенные копии, а не управляемые сущности транзакции, в которой
+ * они были загружены: иначе изменения этой транзакции были бы видны другим потокам до фиксации.
+ * Наружу также отдаются копии, изменения полученной сущности не попадают в кэш.
+ * Кэш второго уровня Hibernate (регион users) обслуживает загрузку пользователей через связи
+ * сущностей (автор отзыва, арендатор бронирования), но не запоминает отсутствующих пользователей
+ * и требует сессии, поэтому проверки X-Sharer-User-Id идут через этот кэш.
+ * Загрузка из базы выполняется в вызывающем потоке вне блокировок кэша, поэтому
+ * ожидание ответа базы не закрепляет виртуальный поток за потоком-носителем.
+ * Без реплики промах кэша загружается в текущей транзакции, на ее же соединении.
+ * Если чтение идет с реплики (задан shareit.datasource.replica.url), промах внутри читающей
+ * транзакции загружается напрямую из пула основной базы, без вложенной транзакции, чтобы
+ * не закэшировать отстающую копию: соединение основной базы берется только на время запроса.
+ * Пишущие транзакции и код вне транзакций и так работают с основной базой.
+ */
+@Component
+public class UserCache {
+    private static final String SELECT_USER = "select user_id, name, email, version from users where user_id = ?";
+
+    private final UserRepository userRepository;
+    /**
+     * Основная база при включенном чтении с реплики, иначе null
+     */
+    private final DataSource primaryDataSource;
+    private final SQLExceptionTranslator exceptionTranslator = new SQLStateSQLExceptionTranslator();
+    private final AsyncCache<Long, Optional<User>> cache;
+
+    public UserCache(UserRepository userRepository,
+                     @Qualifier("primaryDataSource") Optional<DataSource> primaryDataSource,
+                     MeterRegistry meterRegistry,
+                     @Value("${shareit.user.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user.cache.ttl:10m}") Duration ttl,
+                     @Value("${shareit.user.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.primaryDataSource = primaryDataSource.orElse(null);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<User>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Optional<User> user, long currentTime) {
+                        return (user.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Optional<User> user,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Optional<User> user,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<User> findById(Long userId) {
+        if (userId == null) {
+            return userRepository.findById(userId);
+        }
+        CompletableFuture<Optional<User>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> cached = cache.get(userId, (id, executor) -> loading);
+        if (cached == loading) {
+            load(loading, () -> loadUser(userId));
+        }
+        return await(cached).map(UserCache::copyOf);
+    }
+
+    /**
+     * Сбрасывает запись сразу и повторно после фиксации транзакции,
+     * чтобы параллельное чтение не вернуло в кэш незафиксированное состояние
+     */
+    public void invalidate(Long userId) {
+        cache.synchronous().invalidate(userId);
+        AfterCommit.run(() -> cache.synchronous().invalidate(userId));
+    }
+
+    private Optional<User> loadUser(Long userId) {
+        if (primaryDataSource != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loadFromPrimary(userId);
+        }
+        return userRepository.findById(userId).map(UserCache::copyOf);
+    }
+
+    /**
+     * Соединение берется из пула в обход DataSourceUtils: иначе оно было бы привязано
+     * к читающей транзакции и удерживалось бы до ее завершения
+     */
+    private Optional<User> loadFromPrimary(Long userId) {
+        try (Connection connection = primaryDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_USER)) {
+            statement.setLong(1, userId);
+            try (ResultSet row = statement.executeQuery()) {
+                if (!row.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(User.builder()
+                        .id(row.getLong("user_id"))
+                        .name(row.getString("name"))
+                        .email(row.getString("email"))
+                        .version(row.getLong("version"))
+                        .build());
+            }
+        } catch (SQLException e) {
+            DataAccessException translated = exceptionTranslator.translate("Загрузка пользователя", SELECT_USER, e);
+            throw translated != null ? translated : new UncategorizedSQLException("Загрузка пользователя", SELECT_USER, e);
+        }
+    }
+
+    private static <T> void load(CompletableFuture<T> loading, Supplier<T> loader) {
+        try {
+            loading.complete(loader.get());
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .version(user.getVersion())
+                .build();
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserLookupResultDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserService {
 
@@ -10,6 +12,16 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    /**
+     * Пользователи по списку id в порядке запроса, для ненайденных - результат со статусом 404
+     */
+    List<UserLookupResultDto> getUsersByIds(List<Long> userIds);
+
+    /**
+     * ETag пользователя по версии из кэша, пустой результат, если пользователь не найден
+     */
+    Optional<String> getUserETag(Long userId);
+
     UserDto createUser(UserDto newUser);
 
     UserDto updateUser(Long userId, UserDto updUser);
@@ -1,18 +1,23 @@
 package ru.practicum.shareit.user.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.MultiGet;
 import ru.practicum.shareit.error.exceptions.DataConflictException;
 import ru.practicum.shareit.error.exceptions.UserNotFoundException;
 import ru.practicum.shareit.error.exceptions.ValidationException;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserLookupResultDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -20,7 +25,10 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final MultiGet multiGet;
 
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(UserMapper::mapToUserDto)
@@ -28,15 +36,33 @@ public class UserServiceImpl implements UserService {
     }
 
     public UserDto getUserById(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .map(UserMapper::mapToUserDto)
                 .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
+    @Transactional(readOnly = true)
+    public List<UserLookupResultDto> getUsersByIds(List<Long> userIds) {
+        List<User> users = userRepository.findAllById(multiGet.distinctIds(userIds));
+        return MultiGet.inRequestOrder(userIds, users, User::getId, (userId, user) -> UserLookupResultDto.builder()
+                .id(userId)
+                .status(user != null ? HttpStatus.OK.value() : HttpStatus.NOT_FOUND.value())
+                .user(user != null ? UserMapper.mapToUserDto(user) : null)
+                .build());
+    }
+
+    public Optional<String> getUserETag(Long userId) {
+        return userCache.findById(userId)
+                .map(user -> ETags.of(user.getId(), user.getVersion()));
+    }
+
     @Transactional
     public UserDto createUser(UserDto newUser) {
         validateDataCreation(newUser);
-        return UserMapper.mapToUserDto(userRepository.save(UserMapper.mapToUser(newUser)));
+        User user = userRepository.save(UserMapper.mapToUser(newUser));
+        // id мог быть ранее запрошен и закэширован как отсутствующий
+        userCache.invalidate(user.getId());
+        return UserMapper.mapToUserDto(user);
     }
 
     @Transactional
@@ -55,7 +81,9 @@ public class UserServiceImpl implements UserService {
                 !updUser.getEmail().equals(userToUpdate.getEmail())) {
             userToUpdate.setEmail(updUser.getEmail());
         }
-        return UserMapper.mapToUserDto(userRepository.save(userToUpdate));
+        User user = userRepository.save(userToUpdate);
+        userCache.invalidate(userId);
+        return UserMapper.mapToUserDto(user);
     }
 
     public boolean deleteUser(Long userId) {
@@ -63,6 +91,7 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException(userId);
         }
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
         return true;
     }
 
@@ -0,0 +1,39 @@
+CREATE TABLE IF NOT EXISTS users (
+	user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(512) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+    request_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    description VARCHAR NOT NULL,
+    requestor_id BIGINT NOT NULL REFERENCES users (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS items (
+    item_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR NOT NULL,
+    is_available BOOLEAN NOT NULL,
+    owner_id BIGINT NOT NULL REFERENCES users (user_id),
+    request_id BIGINT REFERENCES requests (request_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id BIGINT DEFAULT nextval('bookings_seq') NOT NULL PRIMARY KEY,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL REFERENCES items (item_id),
+    booker_id BIGINT NOT NULL REFERENCES users (user_id),
+    status VARCHAR(128) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+    comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    text VARCHAR NOT NULL,
+    item_id BIGINT NOT NULL REFERENCES items (item_id),
+    author_id BIGINT NOT NULL REFERENCES users (user_id),
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
\ No newline at end of file
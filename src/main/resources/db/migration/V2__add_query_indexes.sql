@@ -0,0 +1,14 @@
+-- Списки бронирований пользователя: booker_id = ? order by start_date desc, booking_id desc,
+-- проверка отзыва: booker_id = ? and item_id = ? and end_date < ?
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date, booking_id);
+
+-- Бронирования вещей владельца (через items.owner_id), последнее/следующее бронирование
+-- и проверка пересечения: item_id = ? / item_id in (...) с условием и сортировкой по start_date
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+-- Проверка занятости e-mail при создании и изменении пользователя
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_uindex ON users (email);
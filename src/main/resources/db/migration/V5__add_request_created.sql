@@ -0,0 +1,11 @@
+-- Дата создания запроса для сортировки и постраничного чтения по курсору (created, request_id)
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS created TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+-- Собственные запросы пользователя: requestor_id = ? order by created desc, request_id desc
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created, request_id);
+
+-- Запросы других пользователей: order by created desc, request_id desc с условием курсора
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created, request_id);
+
+-- Вещи, добавленные в ответ на запросы: request_id in (...)
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
@@ -0,0 +1,92 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Миграции на PostgreSQL, а не только на H2: чистая база и база со схемой, созданной
+ * до перехода на Flyway (spring.sql.init), с теми же настройками базовой версии, что у приложения.
+ */
+class PostgresMigrationTests {
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void preFlywaySchemaIsMovedToBookingsSequence() throws SQLException {
+        DataSource dataSource = createDatabase("legacy");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy/pre_flyway_schema.sql"));
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@test.ru')");
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) values ('drill', 'drill', true, 1)");
+        for (int i = 0; i < 3; i++) {
+            insertBooking(jdbcTemplate);
+        }
+
+        migrate(dataSource);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select is_identity from information_schema.columns " +
+                        "where table_name = 'bookings' and column_name = 'booking_id'", String.class))
+                .isEqualTo("NO");
+        assertThat(jdbcTemplate.queryForObject("select nextval('bookings_seq')", Long.class)).isGreaterThan(3L);
+        insertBooking(jdbcTemplate);
+        assertThat(jdbcTemplate.queryForObject("select max(booking_id) from bookings", Long.class)).isGreaterThan(3L);
+    }
+
+    @Test
+    void emptyDatabaseIsCreatedByMigrations() {
+        DataSource dataSource = createDatabase("fresh");
+
+        migrate(dataSource);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@test.ru')");
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) values ('drill', 'drill', true, 1)");
+        insertBooking(jdbcTemplate);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class)).isEqualTo(1);
+    }
+
+    private static DataSource createDatabase(String name) {
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("create database " + name);
+        return postgres.getDatabase("postgres", name);
+    }
+
+    private static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private static void insertBooking(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values (now(), now() + interval '1 day', 1, 1, 'WAITING')");
+    }
+}
@@ -0,0 +1,291 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.dal.CommentRepository;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.user.dal.UserRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка планов выполнения горячих запросов репозиториев: каждый запрос выполняется
+ * на заполненной базе, перехваченный SQL с теми же параметрами передается в EXPLAIN,
+ * и ни одна таблица не должна читаться полным просмотром.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+    private static final int ITEMS = 50;
+    private static final int BOOKERS = 20;
+    private static final int BOOKINGS_PER_ITEM = 40;
+    private static final int REQUESTS_PER_USER = 10;
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* PUBLIC\\.([A-Z_0-9]+(\\.tableScan)?)(:[^*]*)? \\*/");
+
+    @Autowired
+    private CapturingDataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long bookingId;
+    private List<Long> itemIds;
+    private String email;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString();
+        ownerId = insertUser("owner-" + suffix + "@plan.ru");
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(insertUser("booker" + i + "-" + suffix + "@plan.ru"));
+        }
+        bookerId = bookerIds.get(0);
+        email = "booker0-" + suffix + "@plan.ru";
+
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(jdbcTemplate.queryForObject("select item_id from final table (" +
+                            "insert into items (name, description, is_available, owner_id) values (?, ?, true, ?))",
+                    Long.class, "item " + i, "description " + i, ownerId));
+        }
+        itemId = itemIds.get(0);
+
+        LocalDateTime base = LocalDateTime.now().minusDays(BOOKINGS_PER_ITEM / 2).withNano(0);
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (Long item : itemIds) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = base.plusDays(i);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)), item,
+                        bookerIds.get(i % BOOKERS), BookingStatus.values()[i % BookingStatus.values().length].name()});
+            }
+            comments.add(new Object[]{"comment", item, bookerId, Timestamp.valueOf(base)});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                comments);
+        List<Object[]> requests = new ArrayList<>();
+        for (Long requestor : bookerIds) {
+            for (int i = 0; i < REQUESTS_PER_USER; i++) {
+                requests.add(new Object[]{"request", requestor, Timestamp.valueOf(base.plusHours(i))});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into requests (description, requestor_id, created) values (?, ?, ?)",
+                requests);
+        bookingId = jdbcTemplate.queryForObject("select max(booking_id) from bookings where item_id = ?",
+                Long.class, itemId);
+        jdbcTemplate.execute("analyze");
+    }
+
+    Stream<Arguments> hotQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(100);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        for (BookingState state : BookingState.values()) {
+            queries.put("findBookerBookings " + state, () ->
+                    bookingRepository.findBookerBookings(bookerId, state, now, null, limit));
+            queries.put("findOwnerBookings " + state, () ->
+                    bookingRepository.findOwnerBookings(ownerId, state, now, null, limit));
+            queries.put("findOwnerBookings after cursor " + state, () -> bookingRepository.findOwnerBookings(
+                    ownerId, state, now, new KeysetCursor(now, Long.MAX_VALUE), limit));
+            queries.put("streamOwnerBookings " + state, () -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<?> bookings = bookingRepository.streamOwnerBookings(ownerId, state, now)) {
+                    bookings.forEach(booking -> { });
+                }
+            }));
+        }
+        queries.put("findLastAndNextByItemIdIn", () -> bookingRepository.findLastAndNextByItemIdIn(itemIds, now));
+        queries.put("findIntervalsByItemIdInAndStatusAndStartIsBeforeAndEndIsAfter", () ->
+                bookingRepository.findIntervalsByItemIdInAndStatusAndStartIsBeforeAndEndIsAfter(
+                        itemIds, BookingStatus.APPROVED, now.plusDays(1), now));
+        queries.put("findIntervalsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter", () ->
+                bookingRepository.findIntervalsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(
+                        itemId, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now.plusYears(1), now));
+        queries.put("existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter", () ->
+                bookingRepository.existsByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
+                        itemId, BookingStatus.APPROVED, now.plusDays(1), now));
+        queries.put("existsByBookerIdAndItemIdAndEndIsBefore", () ->
+                bookingRepository.existsByBookerIdAndItemIdAndEndIsBefore(bookerId, itemId, now));
+        queries.put("findVersionByIdAndParticipant", () ->
+                bookingRepository.findVersionByIdAndParticipant(bookingId, bookerId));
+        queries.put("findApprovalTargetsByIdIn", () ->
+                bookingRepository.findApprovalTargetsByIdIn(List.of(bookingId)));
+        queries.put("itemFindByOwnerId", () -> itemRepository.findByOwnerId(ownerId));
+        queries.put("itemFindAllByIdForUpdate", () -> transactionTemplate.executeWithoutResult(status ->
+                itemRepository.findAllByIdForUpdate(itemIds)));
+        queries.put("itemFindVersionById", () -> itemRepository.findVersionById(itemId));
+        queries.put("commentFindByItemIdIn", () -> commentRepository.findByItemIdIn(itemIds));
+        queries.put("itemFindByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L)));
+        queries.put("requestFindByRequestorIdAfter", () -> requestRepository.findByRequestorIdAfter(
+                bookerId, now, Long.MAX_VALUE, limit));
+        queries.put("requestFindByRequestorIdNotAfter", () -> requestRepository.findByRequestorIdNotAfter(
+                bookerId, now, Long.MAX_VALUE, limit));
+        queries.put("userFindByEmail", () -> userRepository.findByEmail(email));
+        return queries.entrySet().stream().map(query -> Arguments.of(query.getKey(), query.getValue()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryDoesNotScanWholeTable(String name, Runnable query) throws Exception {
+        List<CapturedStatement> statements = dataSource.capture(query);
+
+        assertThat(statements).as(name).isNotEmpty();
+        for (CapturedStatement statement : statements) {
+            String plan = explain(statement);
+            List<String> fullScans = new ArrayList<>();
+            Matcher access = TABLE_ACCESS.matcher(plan);
+            while (access.find()) {
+                if (access.group(3) == null) {
+                    fullScans.add(access.group(1));
+                }
+            }
+            assertThat(fullScans).as("%s%n%s", name, plan).isEmpty();
+        }
+    }
+
+    private String explain(CapturedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getTargetDataSource().getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + statement.sql())) {
+            for (ParameterBinding binding : statement.bindings()) {
+                binding.method().invoke(explain, binding.args());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private long insertUser(String email) {
+        return jdbcTemplate.queryForObject("select user_id from final table (" +
+                "insert into users (name, email) values ('user', ?))", Long.class, email);
+    }
+
+    record ParameterBinding(Method method, Object[] args) {
+    }
+
+    record CapturedStatement(String sql, List<ParameterBinding> bindings) {
+    }
+
+    /**
+     * Источник данных, запоминающий выполненные подготовленные запросы вместе с параметрами
+     */
+    static class CapturingDataSource extends DelegatingDataSource {
+        private final List<CapturedStatement> captured = new CopyOnWriteArrayList<>();
+        private volatile boolean capturing;
+
+        CapturingDataSource(DataSource target) {
+            super(target);
+        }
+
+        List<CapturedStatement> capture(Runnable action) {
+            captured.clear();
+            capturing = true;
+            try {
+                action.run();
+            } finally {
+                capturing = false;
+            }
+            return List.copyOf(captured);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                            return capturing(statement, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement capturing(PreparedStatement statement, String sql) {
+            Map<Object, ParameterBinding> bindings = new LinkedHashMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer) {
+                            bindings.put(args[0], new ParameterBinding(method, args));
+                        } else if (method.getName().startsWith("execute") && (args == null || args.length == 0)
+                                && capturing) {
+                            captured.add(new CapturedStatement(sql, List.copyOf(bindings.values())));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class CapturingDataSourceConfiguration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CapturingDataSource)
+                            ? new CapturingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}
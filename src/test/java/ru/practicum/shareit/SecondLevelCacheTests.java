@@ -0,0 +1,98 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheTests {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void itemUpdateReplacesCachedStateAndOwnerQueryIsInvalidatedByInsert() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        CacheRegionStatistics items = statistics.getDomainDataRegionStatistics("items");
+        User owner = saveUser();
+        Item item = saveItem(owner);
+        assertThat(itemRepository.findById(item.getId())).isPresent();
+
+        long hitsBefore = items.getHitCount();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        assertThat(itemRepository.findById(item.getId())).isPresent();
+        assertThat(items.getHitCount()).isEqualTo(hitsBefore + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsBefore);
+
+        itemService.updateItem(item.getId(), ItemDto.builder().name("updated").build(), owner.getId());
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getName()).isEqualTo("updated");
+
+        assertThat(itemRepository.findByOwnerId(owner.getId())).hasSize(1);
+        // регион кэша запроса создается Hibernate при первом выполнении запроса
+        CacheRegionStatistics itemsByOwner = statistics.getQueryRegionStatistics("items-by-owner");
+        long ownerHitsBefore = itemsByOwner.getHitCount();
+        assertThat(itemRepository.findByOwnerId(owner.getId())).hasSize(1);
+        assertThat(itemsByOwner.getHitCount()).isEqualTo(ownerHitsBefore + 1);
+        saveItem(owner);
+        assertThat(itemRepository.findByOwnerId(owner.getId())).hasSize(2);
+
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "items", "result", "hit")
+                .functionCounter()
+                .count()).isPositive();
+    }
+
+    @Test
+    void userUpdateAndDeleteAreVisibleThroughCache() {
+        User user = saveUser();
+        assertThat(userRepository.findById(user.getId())).isPresent();
+
+        userService.updateUser(user.getId(), UserDto.builder().name("updated").build());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getName()).isEqualTo("updated");
+
+        userService.deleteUser(user.getId());
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name("cached item")
+                .description("description")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "shareit.booking.index.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingBatchTests {
+    private static final int BOOKINGS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchInsertsValidBookingsInJdbcBatchesAndReportsEachElement() {
+        User owner = saveUser();
+        User booker = saveUser();
+        Item item = saveItem(owner, true);
+        Item unavailable = saveItem(owner, false);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingRepository.save(Booking.builder()
+                .start(base.minusDays(2))
+                .end(base.minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            // бронирующий из тела запроса не учитывается
+            Long bookerId = i % 2 == 0 ? null : owner.getId();
+            bookings.add(booking(item.getId(), bookerId, base.plusHours(i), base.plusHours(i + 1)));
+        }
+        bookings.add(booking(unavailable.getId(), null, base, base.plusHours(1)));
+        bookings.add(booking(-1L, null, base, base.plusHours(1)));
+        bookings.add(booking(item.getId(), null, base.minusDays(2), base.minusDays(1)));
+        bookings.add(booking(item.getId(), null, null, base));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookings, booker.getId());
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BOOKINGS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(BOOKINGS / 10);
+        assertThat(results).hasSize(bookings.size());
+        for (int i = 0; i < BOOKINGS; i++) {
+            BookingBatchResultDto result = results.get(i);
+            assertThat(result.getIndex()).isEqualTo(i);
+            assertThat(result.getStatus()).isEqualTo(201);
+            assertThat(result.getBooking().getId()).isNotNull();
+            assertThat(result.getBooking().getStatus()).isEqualTo(BookingStatus.WAITING);
+            assertThat(result.getBooking().getStart()).isEqualTo(bookings.get(i).getStart());
+            assertThat(result.getBooking().getBooker().getId()).isEqualTo(booker.getId());
+        }
+        assertThat(results.subList(BOOKINGS, bookings.size()))
+                .extracting(BookingBatchResultDto::getStatus)
+                .containsExactly(400, 404, 409, 400);
+        assertThat(bookingRepository.findAllById(results.subList(0, BOOKINGS).stream()
+                .map(result -> result.getBooking().getId())
+                .toList())).hasSize(BOOKINGS);
+        assertThatThrownBy(() -> bookingService.createBookings(bookings, -1L))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void batchApprovalChecksOwnershipOnceAndUpdatesWaitingBookingsTogether() {
+        User owner = saveUser();
+        User booker = saveUser();
+        Item item = saveItem(owner, true);
+        Item foreign = saveItem(booker, true);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(saveBooking(item, booker, base.plusHours(i), BookingStatus.WAITING).getId());
+        }
+        Long overlapping = saveBooking(item, booker, base, BookingStatus.WAITING).getId();
+        Long processed = saveBooking(item, booker, base.minusDays(1), BookingStatus.REJECTED).getId();
+        Long notOwned = saveBooking(foreign, owner, base, BookingStatus.WAITING).getId();
+        List<Long> request = new ArrayList<>(bookingIds);
+        request.addAll(List.of(overlapping, processed, notOwned, -1L));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingDecisionResultDto> results = bookingService.processBookings(owner.getId(), request, true);
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(results).extracting(BookingDecisionResultDto::getBookingId).containsExactlyElementsOf(request);
+        assertThat(results.subList(0, BOOKINGS)).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(200);
+            assertThat(result.getBooking().getStatus()).isEqualTo(BookingStatus.APPROVED);
+            assertThat(result.getBooking().getItem().getId()).isEqualTo(item.getId());
+        });
+        assertThat(results.subList(BOOKINGS, request.size()))
+                .extracting(BookingDecisionResultDto::getStatus)
+                .containsExactly(409, 409, 400, 400);
+        assertThat(bookingRepository.findAllById(List.of(overlapping, processed, notOwned)))
+                .extracting(Booking::getStatus)
+                .containsOnly(BookingStatus.WAITING, BookingStatus.REJECTED);
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .allSatisfy(booking -> assertThat(booking.getStatus()).isEqualTo(BookingStatus.APPROVED));
+    }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusMinutes(30))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private static BookingDto booking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .itemId(itemId)
+                .bookerId(bookerId)
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+
+    private Item saveItem(User owner, boolean available) {
+        return itemRepository.save(Item.builder()
+                .name("batch item")
+                .description("description")
+                .available(available)
+                .ownerId(owner.getId())
+                .build());
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "logging.level.org.springframework.transaction.interceptor=INFO",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO",
+                "logging.level.ru.practicum.shareit=WARN"
+        })
+class BookingExportTests {
+    private static final int BOOKINGS = 1234;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportStreamsSameBookingsAsPagedListForEveryState() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(User.builder().name("owner").email("owner-" + suffix + "@test.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker-" + suffix + "@test.ru").build());
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("export")
+                    .available(true)
+                    .ownerId(owner.getId())
+                    .build()).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().withNano(0).minusDays(BOOKINGS / 2);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusDays(i).minusHours(i % 3 == 0 ? 12 : 0);
+            rows.add(new Object[]{
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusDays(1)),
+                    itemIds.get(i % itemIds.size()),
+                    booker.getId(),
+                    STATUSES[i % STATUSES.length].name()});
+        }
+        // бронирование в последнюю секунду допустимого диапазона дат попадает на первую страницу
+        LocalDateTime lastSecond = LocalDateTime.of(9999, 12, 31, 23, 59, 59, 500_000_000);
+        rows.add(new Object[]{
+                Timestamp.valueOf(lastSecond),
+                Timestamp.valueOf(lastSecond.plusNanos(400_000_000)),
+                itemIds.get(0),
+                booker.getId(),
+                BookingStatus.WAITING.name()});
+        jdbcTemplate.batchUpdate("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", rows);
+
+        for (BookingState state : BookingState.values()) {
+            ResponseEntity<String> response = export(owner.getId(), state);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+            List<String> lines = response.getBody() == null ? List.of() : Arrays.asList(response.getBody().split("\n"));
+            List<Long> exportedIds = new ArrayList<>();
+            for (String line : lines) {
+                exportedIds.add(objectMapper.readTree(line).get("id").asLong());
+            }
+            assertThat(exportedIds).as(state.name()).isEqualTo(pagedIds(owner.getId(), state));
+            assertThat(exportedIds).as(state.name()).isEqualTo(unpagedIds(owner.getId(), state));
+        }
+        assertThat(unpagedIds(owner.getId(), BookingState.ALL)).hasSize(BOOKINGS + 1);
+    }
+
+    @Test
+    void exportForUnknownOwnerIsNotFound() {
+        assertThat(export(-1L, BookingState.ALL).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<String> export(Long ownerId, BookingState state) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(ownerId));
+        return restTemplate.exchange("/bookings/owner/export?state=" + state,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class);
+    }
+
+    /**
+     * Без limit список возвращается целиком и без курсора следующей страницы
+     */
+    private List<Long> unpagedIds(Long ownerId, BookingState state) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(ownerId));
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/owner?state=" + state,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isNull();
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(response.getBody()).forEach(booking -> ids.add(booking.get("id").asLong()));
+        return ids;
+    }
+
+    private List<Long> pagedIds(Long ownerId, BookingState state) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-Sharer-User-Id", String.valueOf(ownerId));
+            ResponseEntity<String> page = restTemplate.exchange("/bookings/owner?state=" + state + "&limit=500" +
+                            (after == null ? "" : "&after=" + after),
+                    HttpMethod.GET,
+                    new HttpEntity<>(headers),
+                    String.class);
+            objectMapper.readTree(page.getBody()).forEach(booking -> ids.add(booking.get("id").asLong()));
+            after = page.getHeaders().getFirst("X-Next-Cursor");
+        } while (after != null);
+        return ids;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit.booking.index.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingListQueryCountTests {
+    private static final int BOOKINGS = 30;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void ownerBookingPageIsReadWithSingleQuery() {
+        User owner = saveUser();
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(saveUser())
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i).plusHours(1))
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        // владелец попадает в кеш пользователей до замера
+        bookingService.getUserItemsBookings(owner.getId(), BookingState.ALL, null, 1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        KeysetPage<DetailedBookingDto> page = bookingService.getUserItemsBookings(
+                owner.getId(), BookingState.FUTURE, null, null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(page.getContent()).hasSize(BOOKINGS);
+        assertThat(page.getContent()).allSatisfy(booking -> {
+            assertThat(booking.getItem().getName()).isEqualTo("item");
+            assertThat(booking.getBooker().getEmail()).endsWith("@test.ru");
+        });
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "logging.level.org.springframework.transaction.interceptor=INFO",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO",
+                "logging.level.ru.practicum.shareit=WARN",
+                // проверяется резервирование, а не лимиты: каждый бронирующий отправляет десятки запросов
+                "shareit.rate-limit.enabled=false"
+        })
+class BookingReservationConcurrencyTests {
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 64;
+    private static final int ITEMS = 4;
+    private static final int BOOKERS = 50;
+    private static final int SLOTS = 12;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelBookingsNeverProduceApprovedOverlapsOrLostWrites() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(User.builder().name("owner").email("owner-" + suffix + "@test.ru").build());
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userRepository.save(User.builder()
+                    .name("booker" + i)
+                    .email("booker" + i + "-" + suffix + "@test.ru")
+                    .build()).getId());
+        }
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(Item.builder()
+                    .name("hot item " + i)
+                    .description("popular")
+                    .available(true)
+                    .ownerId(owner.getId())
+                    .build()).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger approved = new AtomicInteger();
+        Map<HttpStatusCode, AtomicInteger> unexpected = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int n = 0; n < REQUESTS; n++) {
+            int request = n;
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                int slot = request % SLOTS;
+                BookingDto booking = BookingDto.builder()
+                        .itemId(itemIds.get(request % ITEMS))
+                        .start(base.plusHours(slot))
+                        .end(base.plusHours(slot + 3))
+                        .build();
+                ResponseEntity<Map> createResponse = restTemplate.exchange("/bookings",
+                        HttpMethod.POST,
+                        new HttpEntity<>(booking, headers(bookerIds.get(request % BOOKERS))),
+                        Map.class);
+                if (createResponse.getStatusCode() == HttpStatus.CONFLICT) {
+                    return null;
+                }
+                if (createResponse.getStatusCode() != HttpStatus.CREATED) {
+                    unexpected.computeIfAbsent(createResponse.getStatusCode(), s -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                }
+                created.incrementAndGet();
+
+                ResponseEntity<Map> approveResponse = restTemplate.exchange(
+                        "/bookings/" + createResponse.getBody().get("id") + "?approved=true",
+                        HttpMethod.PATCH,
+                        new HttpEntity<>(headers(owner.getId())),
+                        Map.class);
+                if (approveResponse.getStatusCode() == HttpStatus.OK) {
+                    approved.incrementAndGet();
+                } else if (approveResponse.getStatusCode() != HttpStatus.CONFLICT) {
+                    unexpected.computeIfAbsent(approveResponse.getStatusCode(), s -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(unexpected).isEmpty();
+
+        String itemIdList = String.join(",", itemIds.stream().map(String::valueOf).toList());
+        Integer storedBookings = jdbcTemplate.queryForObject(
+                "select count(*) from bookings where item_id in (" + itemIdList + ")", Integer.class);
+        assertThat(storedBookings).isEqualTo(created.get());
+
+        List<Map<String, Object>> approvedRows = jdbcTemplate.queryForList(
+                "select item_id, start_date, end_date from bookings " +
+                        "where status = 'APPROVED' and item_id in (" + itemIdList + ") " +
+                        "order by item_id, start_date");
+        assertThat(approvedRows).hasSize(approved.get());
+        for (int i = 1; i < approvedRows.size(); i++) {
+            Map<String, Object> previous = approvedRows.get(i - 1);
+            Map<String, Object> current = approvedRows.get(i);
+            if (previous.get("item_id").equals(current.get("item_id"))) {
+                assertThat(((Timestamp) current.get("start_date")).toLocalDateTime())
+                        .isAfterOrEqualTo(((Timestamp) previous.get("end_date")).toLocalDateTime());
+            }
+        }
+    }
+
+    private static HttpHeaders headers(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit.booking.index.enabled=false",
+        "shareit.booking.events.buffer-size=4"
+})
+class BookingEventBusTests {
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Autowired
+    private BookingEventBus bookingEventBus;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void ownerReceivesEventsForOwnItemsAfterCommit() throws InterruptedException {
+        User owner = saveUser();
+        User otherOwner = saveUser();
+        User booker = saveUser();
+        Item item = saveItem(owner);
+        RecordingEmitter ownerEvents = new RecordingEmitter();
+        RecordingEmitter otherOwnerEvents = new RecordingEmitter();
+        bookingEventBus.subscribe(owner.getId(), ownerEvents);
+        bookingEventBus.subscribe(otherOwner.getId(), otherOwnerEvents);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        DetailedBookingDto created = bookingService.createBooking(BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build(), booker.getId());
+        bookingService.processBooking(owner.getId(), created.getId(), true);
+
+        DetailedBookingDto first = ownerEvents.next();
+        assertThat(first.getId()).isEqualTo(created.getId());
+        assertThat(first.getStatus()).isEqualTo(BookingStatus.WAITING);
+        DetailedBookingDto second = ownerEvents.next();
+        assertThat(second.getId()).isEqualTo(created.getId());
+        assertThat(second.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(otherOwnerEvents.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void slowSubscriberIsEvictedWithoutBlockingPublisher() throws InterruptedException {
+        Long ownerId = saveUser().getId();
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter slow = new BlockingEmitter(release);
+        int subscribersBefore = bookingEventBus.subscriberCount();
+        double evictionsBefore = meterRegistry.counter("shareit.booking.events.evictions").count();
+        bookingEventBus.subscribe(ownerId, slow);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            bookingEventBus.publish(BookingEventType.CREATED, booking(ownerId, (long) i));
+        }
+        Duration publishing = Duration.ofNanos(System.nanoTime() - started);
+        release.countDown();
+
+        assertThat(publishing).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.counter("shareit.booking.events.evictions").count())
+                .isEqualTo(evictionsBefore + 1);
+        assertThat(slow.completed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(bookingEventBus.subscriberCount()).isEqualTo(subscribersBefore);
+    }
+
+    private static DetailedBookingDto booking(Long ownerId, Long id) {
+        return DetailedBookingDto.builder()
+                .id(id)
+                .item(ItemDto.builder().ownerId(ownerId).build())
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name("events item")
+                .description("description")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<DetailedBookingDto> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(DetailedBookingDto.class::isInstance)
+                    .map(DetailedBookingDto.class::cast)
+                    .forEach(events::add);
+        }
+
+        DetailedBookingDto next() throws InterruptedException {
+            DetailedBookingDto event = events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            return event;
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.DetailedBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Последнее и следующее бронирование из индекса совпадают с результатом запроса к базе данных
+ */
+@SpringBootTest
+class BookingIntervalIndexTests {
+    @Autowired
+    private BookingIntervalIndex bookingIndex;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void lastAndNextBookingsMatchRepositoryAfterCommit() {
+        User owner = saveUser();
+        User booker = saveUser();
+        Item item = saveItem(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        DetailedBookingDto first = createBooking(item, booker, start, start.plusHours(2));
+        DetailedBookingDto second = createBooking(item, booker, start.plusDays(1), start.plusDays(1).plusHours(2));
+        DetailedBookingDto third = createBooking(item, booker, start.plusDays(2), start.plusDays(2).plusHours(2));
+        List<LocalDateTime> moments = List.of(
+                start.minusHours(1),
+                start,
+                start.plusHours(1),
+                start.plusDays(1).plusHours(1),
+                start.plusDays(3));
+        assertIndexMatchesRepository(item.getId(), moments);
+
+        bookingService.processBooking(owner.getId(), first.getId(), true);
+        bookingService.processBooking(owner.getId(), second.getId(), false);
+        assertIndexMatchesRepository(item.getId(), moments);
+        assertThat(bookingIndex.findNextBooking(item.getId(), start.plusHours(1)))
+                .map(BookingDto::getId)
+                .hasValue(third.getId());
+
+        bookingService.processBooking(owner.getId(), third.getId(), false);
+        assertIndexMatchesRepository(item.getId(), moments);
+        assertThat(bookingIndex.findNextBooking(item.getId(), start.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    void uncommittedAndRolledBackChangesAreNotIndexed() {
+        User owner = saveUser();
+        User booker = saveUser();
+        Item item = saveItem(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        DetailedBookingDto booking = createBooking(item, booker, start, start.plusHours(2));
+        List<LocalDateTime> moments = List.of(start.minusHours(1), start.plusHours(1), start.plusDays(1));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            bookingService.processBooking(owner.getId(), booking.getId(), false);
+            createBooking(item, booker, start.plusDays(1), start.plusDays(1).plusHours(2));
+            assertThat(bookingIndex.findLastBooking(item.getId(), start.plusDays(2)))
+                    .map(BookingDto::getId)
+                    .hasValue(booking.getId());
+            status.setRollbackOnly();
+        });
+
+        assertIndexMatchesRepository(item.getId(), moments);
+        assertThat(bookingIndex.findNextBooking(item.getId(), start.minusHours(1)))
+                .map(BookingDto::getId)
+                .hasValue(booking.getId());
+
+        transaction.executeWithoutResult(status ->
+                bookingService.processBooking(owner.getId(), booking.getId(), false));
+
+        assertIndexMatchesRepository(item.getId(), moments);
+        assertThat(bookingIndex.findNextBooking(item.getId(), start.minusHours(1))).isEmpty();
+    }
+
+    private void assertIndexMatchesRepository(Long itemId, List<LocalDateTime> moments) {
+        for (LocalDateTime now : moments) {
+            Optional<BookingDto> last = Optional.empty();
+            Optional<BookingDto> next = Optional.empty();
+            for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(List.of(itemId), now)) {
+                if (booking.getStart().isBefore(now)) {
+                    last = Optional.of(BookingMapper.mapToBookingDto(booking));
+                } else {
+                    next = Optional.of(BookingMapper.mapToBookingDto(booking));
+                }
+            }
+            assertThat(bookingIndex.findLastBooking(itemId, now)).as("последнее на %s", now).isEqualTo(last);
+            assertThat(bookingIndex.findNextBooking(itemId, now)).as("следующее на %s", now).isEqualTo(next);
+        }
+    }
+
+    private DetailedBookingDto createBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build(), booker.getId());
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name("index item")
+                .description("description")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+    }
+}
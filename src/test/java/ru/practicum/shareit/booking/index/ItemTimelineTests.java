@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemTimelineTests {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void freeIntervalsSkipHoursTouchedByBookings() {
+        ItemTimeline timeline = ItemTimeline.of(List.of(
+                interval(1L, DAY.plusHours(2), DAY.plusHours(4)),
+                interval(2L, DAY.plusHours(3), DAY.plusHours(5)),
+                interval(3L, DAY.plusHours(10).plusMinutes(15), DAY.plusHours(10).plusMinutes(45)),
+                interval(4L, DAY.plusHours(22), DAY.plusDays(2).plusHours(1))));
+
+        assertThat(timeline.freeIntervals(DAY.plusMinutes(30), DAY.plusDays(3)))
+                .containsExactly(
+                        free(DAY.plusMinutes(30), DAY.plusHours(2)),
+                        free(DAY.plusHours(5), DAY.plusHours(10)),
+                        free(DAY.plusHours(11), DAY.plusHours(22)),
+                        free(DAY.plusDays(2).plusHours(1), DAY.plusDays(3)));
+        assertThat(timeline.freeIntervals(DAY.plusHours(23), DAY.plusDays(1).plusHours(12))).isEmpty();
+    }
+
+    @Test
+    void freeIntervalsForYearFollowRemovedBookings() {
+        ItemTimeline timeline = ItemTimeline.of(List.of(
+                interval(1L, DAY.plusDays(100), DAY.plusDays(101)),
+                interval(2L, DAY.plusDays(100).plusHours(12), DAY.plusDays(102))));
+
+        assertThat(timeline.freeIntervals(DAY, DAY.plusYears(1)))
+                .containsExactly(
+                        free(DAY, DAY.plusDays(100)),
+                        free(DAY.plusDays(102), DAY.plusYears(1)));
+        assertThat(timeline.remove(interval(2L, DAY.plusDays(100).plusHours(12), DAY.plusDays(102)))).isEqualTo(-1);
+        assertThat(timeline.freeIntervals(DAY, DAY.plusYears(1)))
+                .containsExactly(
+                        free(DAY, DAY.plusDays(100)),
+                        free(DAY.plusDays(101), DAY.plusYears(1)));
+        assertThat(ItemTimeline.EMPTY.freeIntervals(DAY, DAY.plusYears(1)))
+                .containsExactly(free(DAY, DAY.plusYears(1)));
+    }
+
+    @Test
+    void multiYearBookingsDoNotDependOnDuration() {
+        LocalDateTime farEnd = LocalDateTime.of(9999, 12, 31, 0, 0);
+        ItemTimeline timeline = ItemTimeline.of(List.of(
+                interval(1L, DAY.plusDays(1), DAY.plusYears(10)),
+                interval(2L, DAY.plusYears(20), farEnd)));
+
+        assertThat(timeline.freeIntervals(DAY, DAY.plusDays(2)))
+                .containsExactly(free(DAY, DAY.plusDays(1)));
+        assertThat(timeline.freeIntervals(DAY.plusYears(5), DAY.plusYears(6))).isEmpty();
+        assertThat(timeline.freeIntervals(DAY.plusYears(15), DAY.plusYears(15).plusDays(1)))
+                .containsExactly(free(DAY.plusYears(15), DAY.plusYears(15).plusDays(1)));
+        assertThat(timeline.freeIntervals(farEnd.minusDays(1), farEnd.plusHours(2)))
+                .containsExactly(free(farEnd, farEnd.plusHours(2)));
+
+        assertThat(timeline.add(interval(3L, DAY.plusYears(12), DAY.plusYears(12).plusHours(3)))).isEqualTo(1);
+        assertThat(timeline.size()).isEqualTo(3);
+        assertThat(timeline.freeIntervals(DAY.plusYears(12), DAY.plusYears(12).plusHours(4)))
+                .containsExactly(free(DAY.plusYears(12).plusHours(3), DAY.plusYears(12).plusHours(4)));
+    }
+
+    @Test
+    void removedLongBookingNoLongerWidensSearch() {
+        BookingInterval longBooking = interval(1L, DAY, DAY.plusYears(10));
+        BookingInterval shortBooking = interval(2L, DAY.plusYears(11), DAY.plusYears(11).plusHours(2));
+        ItemTimeline timeline = ItemTimeline.of(List.of(longBooking, shortBooking));
+        long shortDuration = ItemTimeline.of(List.of(shortBooking)).maxDuration();
+
+        assertThat(timeline.maxDuration()).isGreaterThan(shortDuration);
+        assertThat(timeline.remove(longBooking)).isEqualTo(-1);
+        assertThat(timeline.maxDuration()).isEqualTo(shortDuration);
+        assertThat(timeline.freeIntervals(DAY.plusYears(5), DAY.plusYears(5).plusDays(1)))
+                .containsExactly(free(DAY.plusYears(5), DAY.plusYears(5).plusDays(1)));
+        assertThat(timeline.add(shortBooking)).isZero();
+        assertThat(timeline.maxDuration()).isEqualTo(shortDuration);
+        assertThat(timeline.remove(shortBooking)).isEqualTo(-1);
+        assertThat(timeline.maxDuration()).isZero();
+    }
+
+    private static BookingInterval interval(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval(id, 1L, 1L, start, end, BookingStatus.APPROVED);
+    }
+
+    private static FreeIntervalDto free(LocalDateTime start, LocalDateTime end) {
+        return FreeIntervalDto.builder()
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
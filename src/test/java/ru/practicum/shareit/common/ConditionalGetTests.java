@@ -0,0 +1,104 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetTests {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void unchangedResourcesAreNotModifiedUntilTheirDataChanges() {
+        long ownerId = create("/users", Map.of("name", "owner", "email", UUID.randomUUID() + "@test.ru"), null);
+        long bookerId = create("/users", Map.of("name", "booker", "email", UUID.randomUUID() + "@test.ru"), null);
+        long itemId = create("/items", Map.of("name", "drill", "description", "drill", "available", true), ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = create("/bookings", Map.of(
+                "itemId", itemId,
+                "start", start.toString(),
+                "end", start.plusDays(1).toString()), bookerId);
+
+        String user = assertNotModifiedOnRepeat("/users/" + bookerId, bookerId);
+        String item = assertNotModifiedOnRepeat("/items/" + itemId, ownerId);
+        String booking = assertNotModifiedOnRepeat("/bookings/" + bookingId, bookerId);
+
+        exchange("/users/" + bookerId, HttpMethod.PATCH, Map.of("name", "renamed"), bookerId, null);
+        assertModified("/users/" + bookerId, bookerId, user);
+        assertModified("/bookings/" + bookingId, bookerId, booking);
+
+        exchange("/bookings/" + bookingId + "?approved=true", HttpMethod.PATCH, null, ownerId, null);
+        assertModified("/items/" + itemId, ownerId, item);
+    }
+
+    @Test
+    void conditionalRequestStillChecksAccess() {
+        long ownerId = create("/users", Map.of("name", "owner", "email", UUID.randomUUID() + "@test.ru"), null);
+        long strangerId = create("/users", Map.of("name", "stranger", "email", UUID.randomUUID() + "@test.ru"), null);
+        long itemId = create("/items", Map.of("name", "saw", "description", "saw", "available", true), ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = create("/bookings", Map.of(
+                "itemId", itemId,
+                "start", start.toString(),
+                "end", start.plusDays(1).toString()), ownerId);
+        String eTag = exchange("/bookings/" + bookingId, HttpMethod.GET, null, ownerId, null)
+                .getHeaders().getETag();
+
+        ResponseEntity<String> response = exchange("/bookings/" + bookingId, HttpMethod.GET, null, strangerId, eTag);
+
+        assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+        assertThat(exchange("/users/" + Long.MAX_VALUE, HttpMethod.GET, null, null, eTag).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private String assertNotModifiedOnRepeat(String path, long userId) {
+        ResponseEntity<String> first = exchange(path, HttpMethod.GET, null, userId, null);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String eTag = first.getHeaders().getETag();
+        assertThat(eTag).isNotBlank();
+
+        ResponseEntity<String> repeated = exchange(path, HttpMethod.GET, null, userId, eTag);
+        assertThat(repeated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(repeated.getBody()).isNull();
+        return eTag;
+    }
+
+    private void assertModified(String path, long userId, String eTag) {
+        ResponseEntity<String> response = exchange(path, HttpMethod.GET, null, userId, eTag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    private long create(String path, Map<String, Object> body, Long userId) {
+        ResponseEntity<Map> response = restTemplate.exchange(path, HttpMethod.POST,
+                new HttpEntity<>(body, headers(userId, null)), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private ResponseEntity<String> exchange(String path, HttpMethod method, Object body, Long userId, String eTag) {
+        return restTemplate.exchange(path, method, new HttpEntity<>(body, headers(userId, eTag)), String.class);
+    }
+
+    private static HttpHeaders headers(Long userId, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
+        }
+        if (eTag != null) {
+            headers.setIfNoneMatch(eTag);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.multi-get.max-ids=5")
+class MultiGetTests {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void multiGetKeepsRequestOrderAndMarksMissingIds() {
+        long first = createUser();
+        long second = createUser();
+        long itemId = ((Number) restTemplate.exchange("/items", HttpMethod.POST,
+                new HttpEntity<>(Map.of("name", "drill", "description", "drill", "available", true),
+                        headers(first)), Map.class).getBody().get("id")).longValue();
+
+        ResponseEntity<List> users = restTemplate.getForEntity(
+                "/users?ids=" + second + "," + Long.MAX_VALUE + "," + first, List.class);
+        ResponseEntity<List> items = restTemplate.getForEntity(
+                "/items?ids=" + Long.MAX_VALUE + "," + itemId, List.class);
+
+        assertThat(users.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(users.getBody()).extracting(result -> ((Map<?, ?>) result).get("status"))
+                .containsExactly(200, 404, 200);
+        assertThat(users.getBody()).extracting(result -> idOf(result, "user"))
+                .containsExactly(second, null, first);
+        assertThat(items.getBody()).extracting(result -> ((Map<?, ?>) result).get("status"))
+                .containsExactly(404, 200);
+        assertThat(restTemplate.getForEntity("/users?ids=1,2,3,4,5,6", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private long createUser() {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/users",
+                Map.of("name", "user", "email", UUID.randomUUID() + "@test.ru"), Map.class);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private static Long idOf(Object result, String field) {
+        Map<?, ?> value = (Map<?, ?>) ((Map<?, ?>) result).get(field);
+        return value != null ? ((Number) value.get("id")).longValue() : null;
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_ID_HEADER, String.valueOf(userId));
+        return headers;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.common.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+                "shareit.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+                "shareit.datasource.replica.username=dbuser",
+                "shareit.datasource.replica.password=12345",
+                "shareit.datasource.read-your-writes-window=2s",
+                "shareit.item.search.index.enabled=false",
+                "shareit.booking.index.enabled=false",
+                // регионы JCache общие для всех контекстов в JVM, а у этого контекста свои базы
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+        })
+class ReadWriteRoutingTests {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void migrateReplica() {
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void readOnlyRequestsAreServedByReplica() {
+        String primaryEmail = UUID.randomUUID() + "@primary.ru";
+        String replicaEmail = UUID.randomUUID() + "@replica.ru";
+        createUser(primaryEmail);
+        new JdbcTemplate(replicaDataSource).update("insert into users (name, email) values ('replica', ?)",
+                replicaEmail);
+
+        List<String> emails = restTemplate.exchange("/users", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<List<Map<String, Object>>>() {
+                        }).getBody().stream()
+                .map(user -> (String) user.get("email"))
+                .toList();
+
+        assertThat(emails).contains(replicaEmail).doesNotContain(primaryEmail);
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimaryUntilWindowExpires() {
+        long ownerId = createUser(UUID.randomUUID() + "@primary.ru");
+        long otherId = createUser(UUID.randomUUID() + "@primary.ru");
+        String name = "item-" + UUID.randomUUID();
+        ResponseEntity<Map> created = restTemplate.exchange("/items", HttpMethod.POST,
+                new HttpEntity<>(Map.of("name", name, "description", "routing", "available", true),
+                        headers(ownerId)),
+                Map.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        assertThat(search(name, ownerId)).hasSize(1);
+        assertThat(search(name, otherId)).isEmpty();
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(search(name, ownerId)).isEmpty());
+    }
+
+    @Test
+    void userCacheMissInsideReadOnlyTransactionIsLoadedFromPrimary() {
+        String primaryEmail = UUID.randomUUID() + "@primary.ru";
+        String replicaEmail = UUID.randomUUID() + "@replica.ru";
+        long userId = createUser(primaryEmail);
+        new JdbcTemplate(replicaDataSource).update("insert into users (name, email) values ('replica', ?)",
+                replicaEmail);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            assertThat(userCache.findById(userId)).map(User::getEmail).hasValue(primaryEmail);
+            assertThat(userRepository.findByEmail(replicaEmail)).isPresent();
+            assertThat(userRepository.findByEmail(primaryEmail)).isEmpty();
+        });
+    }
+
+    private List<?> search(String text, long userId) {
+        return restTemplate.exchange("/items/search?text=" + text, HttpMethod.GET,
+                new HttpEntity<>(headers(userId)), List.class).getBody();
+    }
+
+    private long createUser(String email) {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/users",
+                Map.of("name", "user", "email", email), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_ID_HEADER, String.valueOf(userId));
+        return headers;
+    }
+}
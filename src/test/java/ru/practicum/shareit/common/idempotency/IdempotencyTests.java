@@ -0,0 +1,190 @@
+package ru.practicum.shareit.common.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.error.exceptions.IdempotencyKeyReuseException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IdempotencyTests {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void replayReturnsStoredResponseWithoutCreatingDuplicate() {
+        String email = UUID.randomUUID() + "@test.ru";
+        Map<String, Object> user = Map.of("name", "user", "email", email);
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<Map> first = post("/users", user, null, key);
+        ResponseEntity<Map> replay = post("/users", user, null, key);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getBody()).isEqualTo(first.getBody());
+        assertThat(userRepository.findByEmail(email)).isPresent();
+        assertThat(post("/users", user, null, UUID.randomUUID().toString()).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForFirstRequest() throws Exception {
+        long ownerId = ((Number) post("/users", Map.of("name", "owner", "email", UUID.randomUUID() + "@test.ru"),
+                null, null).getBody().get("id")).longValue();
+        Map<String, Object> item = Map.of("name", "ladder", "description", "ladder", "available", true);
+        String key = UUID.randomUUID().toString();
+
+        List<Future<ResponseEntity<Map>>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES)) {
+            CountDownLatch start = new CountDownLatch(1);
+            for (int i = 0; i < DUPLICATES; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return post("/items", item, ownerId, key);
+                }));
+            }
+            start.countDown();
+        }
+
+        List<Object> ids = new ArrayList<>();
+        for (Future<ResponseEntity<Map>> response : responses) {
+            assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            ids.add(response.get().getBody().get("id"));
+        }
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(itemRepository.findByOwnerId(ownerId)).hasSize(1);
+    }
+
+    @Test
+    void reuseOfKeyWithDifferentBodyIsRejected() {
+        String key = UUID.randomUUID().toString();
+        Map<String, Object> user = Map.of("name", "user", "email", UUID.randomUUID() + "@test.ru");
+        Map<String, Object> otherUser = Map.of("name", "user", "email", UUID.randomUUID() + "@test.ru");
+
+        ResponseEntity<Map> first = post("/users", user, null, key);
+        ResponseEntity<Map> reuse = post("/users", otherUser, null, key);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(reuse.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(userRepository.findByEmail((String) otherUser.get("email"))).isEmpty();
+        assertThat(post("/users", user, null, key).getBody()).isEqualTo(first.getBody());
+    }
+
+    @Test
+    void batchBookingReplayDoesNotCreateDuplicates() {
+        User owner = saveUser();
+        User booker = saveUser();
+        Item item = itemRepository.save(Item.builder()
+                .name("ladder")
+                .description("ladder")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Map<String, Object>> bookings = List.of(Map.of(
+                "itemId", item.getId(),
+                "start", start.toString(),
+                "end", start.plusHours(1).toString()));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_ID_HEADER, String.valueOf(booker.getId()));
+        headers.set(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString());
+        HttpEntity<List<Map<String, Object>>> request = new HttpEntity<>(bookings, headers);
+        ParameterizedTypeReference<List<Map<String, Object>>> resultType = new ParameterizedTypeReference<>() {
+        };
+
+        ResponseEntity<List<Map<String, Object>>> first = restTemplate.exchange(
+                "/bookings/batch", HttpMethod.POST, request, resultType);
+        ResponseEntity<List<Map<String, Object>>> replay = restTemplate.exchange(
+                "/bookings/batch", HttpMethod.POST, request, resultType);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).singleElement().satisfies(result -> assertThat(result.get("status")).isEqualTo(201));
+        assertThat(replay.getBody()).isEqualTo(first.getBody());
+        assertThat(bookingRepository.findIntervalsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(
+                item.getId(), List.of(BookingStatus.WAITING), start.plusDays(1), start.minusDays(1))).hasSize(1);
+    }
+
+    @Test
+    void requestInFlightBlocksOnlyItsOwnKey() throws Exception {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<byte[]> first = executor.submit(() -> store.execute("slow", "fingerprint", () -> {
+                started.countDown();
+                await(release);
+                return new byte[]{1};
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<byte[]> duplicate = executor.submit(() -> store.execute("slow", "fingerprint", () -> new byte[]{2}));
+
+            assertThat(store.execute("other", "fingerprint", () -> new byte[]{3})).containsExactly(3);
+            assertThatThrownBy(() -> store.execute("slow", "changed", () -> new byte[]{4}))
+                    .isInstanceOf(IdempotencyKeyReuseException.class);
+            assertThat(duplicate.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(1);
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).containsExactly(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+
+    private ResponseEntity<Map> post(String path, Map<String, Object> body, Long userId, String key) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
+        }
+        if (key != null) {
+            headers.set(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return restTemplate.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.common.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.compression.enabled=true",
+                "server.compression.mime-types=application/json",
+                "server.compression.min-response-size=2KB"
+        })
+class JsonResponseTests {
+    private static final int USERS = 50;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void dateTimeIsWrittenAsStandardSerializerDoes() throws IOException {
+        ObjectMapper standard = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2024, 1, 2, 3, 4),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 500_000_000),
+                LocalDateTime.of(1, 1, 1, 0, 0, 0, 1),
+                LocalDateTime.of(2024, 6, 15, 12, 30, 45, 123_456_789),
+                LocalDateTime.of(12024, 6, 15, 12, 30),
+                LocalDateTime.of(-5, 6, 15, 12, 30));
+
+        assertThat(objectMapper.getSerializerProviderInstance().findValueSerializer(LocalDateTime.class))
+                .isInstanceOf(LocalDateTimeJsonSerializer.class);
+        for (LocalDateTime value : values) {
+            assertThat(objectMapper.writeValueAsString(value)).isEqualTo(standard.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void largeListResponseIsCompressed() throws IOException, InterruptedException {
+        for (int i = 0; i < USERS; i++) {
+            restTemplate.postForEntity("/users",
+                    Map.of("name", "user " + i, "email", UUID.randomUUID() + "@test.ru"), Map.class);
+        }
+
+        // клиент JDK не распаковывает ответ сам, поэтому видно заголовок Content-Encoding
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            assertThat(objectMapper.readValue(body, List.class)).hasSizeGreaterThanOrEqualTo(USERS);
+        }
+    }
+}
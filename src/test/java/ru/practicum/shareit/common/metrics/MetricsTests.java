@@ -0,0 +1,78 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit.metrics.enabled=true",
+                "spring.jpa.properties.hibernate.generate_statistics=true"
+        })
+class MetricsTests {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    @Qualifier("percentilesHistogramMeterFilter")
+    private MeterFilter percentilesHistogramMeterFilter;
+
+    @Test
+    void ownerBookingsRequestIsTimedPerServiceMethodQueryAndState() {
+        User owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@test.ru").build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(owner.getId()));
+
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/owner?state=PAST",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Timer service = meterRegistry.get("shareit.service")
+                .tags("service", "BookingServiceImpl", "method", "getUserItemsBookings", "state", "PAST")
+                .timer();
+        assertThat(service.count()).isEqualTo(1);
+        assertThat(histogramEnabled(service)).isTrue();
+
+        Timer query = meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "BookingRepository", "method", "findOwnerBookings")
+                .timer();
+        assertThat(query.count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get("hibernate.statements").functionCounter().count()).isPositive();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            Timer request = meterRegistry.find("http.server.requests")
+                    .tags("uri", "/bookings/owner", "state", "PAST")
+                    .timer();
+            assertThat(request).isNotNull();
+            assertThat(histogramEnabled(request)).isTrue();
+        });
+    }
+
+    // SimpleMeterRegistry не публикует корзины гистограмм, поэтому проверяется настройка таймера
+    private boolean histogramEnabled(Timer timer) {
+        return Boolean.TRUE.equals(percentilesHistogramMeterFilter
+                .configure(timer.getId(), DistributionStatisticConfig.DEFAULT)
+                .isPercentileHistogram());
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit.rate-limit.search.permits-per-second=1",
+                "shareit.rate-limit.search.burst=" + RateLimitTests.SEARCH_BURST,
+                "shareit.rate-limit.list.permits-per-second=1",
+                "shareit.rate-limit.list.burst=" + RateLimitTests.LIST_BURST,
+                "shareit.rate-limit.write.permits-per-second=1",
+                "shareit.rate-limit.write.burst=" + RateLimitTests.WRITE_BURST
+        })
+class RateLimitTests {
+    static final int SEARCH_BURST = 2;
+    static final int LIST_BURST = 3;
+    static final int WRITE_BURST = 4;
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void userOverSearchBudgetGetsTooManyRequestsWithoutAffectingOthers() throws IOException, InterruptedException {
+        long userId = createUser();
+        long otherUserId = createUser();
+        double throttledBefore = meterRegistry.counter("shareit.rate-limit.throttled", "endpoint", "search").count();
+
+        assertThat(search(userId).statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(search(userId).statusCode()).isEqualTo(HttpStatus.OK.value());
+        HttpResponse<String> throttled = search(userId);
+
+        assertThat(throttled.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(throttled.headers().firstValue(HttpHeaders.RETRY_AFTER)).hasValue("1");
+        assertThat(meterRegistry.counter("shareit.rate-limit.throttled", "endpoint", "search").count())
+                .isEqualTo(throttledBefore + 1);
+        assertThat(search(otherUserId).statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(get("/items", userId).statusCode()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void eachEndpointClassAdmitsItsConfiguredBurst() throws IOException, InterruptedException {
+        long userId = createUser();
+
+        for (int i = 0; i < SEARCH_BURST; i++) {
+            assertThat(search(userId).statusCode()).isEqualTo(HttpStatus.OK.value());
+        }
+        assertThat(search(userId).statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        for (int i = 0; i < LIST_BURST; i++) {
+            assertThat(get("/items", userId).statusCode()).isEqualTo(HttpStatus.OK.value());
+        }
+        assertThat(get("/items", userId).statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        String request = "{\"description\": \"Нужна дрель\"}";
+        for (int i = 0; i < WRITE_BURST; i++) {
+            assertThat(send("POST", "/requests", userId, request).statusCode()).isEqualTo(HttpStatus.CREATED.value());
+        }
+        assertThat(send("POST", "/requests", userId, request).statusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void endpointsWithoutRateLimitedAreNotThrottled() throws IOException, InterruptedException {
+        long userId = createUser();
+
+        for (int i = 0; i <= WRITE_BURST * 2; i++) {
+            String user = "{\"name\": \"user\", \"email\": \"" + UUID.randomUUID() + "@test.ru\"}";
+            assertThat(send("POST", "/users", null, user).statusCode()).isEqualTo(HttpStatus.CREATED.value());
+            assertThat(send("PATCH", "/bookings/-1?approved=true", userId, null).statusCode())
+                    .isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+    }
+
+    @Test
+    void invalidBudgetFailsWithPropertyName() {
+        assertThatThrownBy(() -> new UserRateLimiter(new SimpleMeterRegistry(),
+                0, 20, 50, 100, 20, 40, Duration.ofMinutes(10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("shareit.rate-limit.search.permits-per-second");
+        assertThatThrownBy(() -> new UserRateLimiter(new SimpleMeterRegistry(),
+                10, 20, 50, 100, 20, 0, Duration.ofMinutes(10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("shareit.rate-limit.write.burst");
+    }
+
+    @Test
+    void requestsWithoutValidUserIdAreLimitedByClientAddress() throws IOException, InterruptedException {
+        assertThat(get("/items/search?text=drill", (String) null).statusCode())
+                .isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(get("/items/search?text=drill", "not-a-number").statusCode())
+                .isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        HttpResponse<String> throttled = get("/items/search?text=drill", "another-value");
+
+        assertThat(throttled.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(throttled.headers().firstValue(HttpHeaders.RETRY_AFTER)).hasValue("1");
+        assertThat(search(createUser()).statusCode()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private HttpResponse<String> search(long userId) throws IOException, InterruptedException {
+        return get("/items/search?text=drill", userId);
+    }
+
+    // Клиент JDK не повторяет ответы 429 сам, в отличие от Apache HttpClient в TestRestTemplate
+    private HttpResponse<String> get(String path, long userId) throws IOException, InterruptedException {
+        return get(path, String.valueOf(userId));
+    }
+
+    private HttpResponse<String> get(String path, String userId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (userId != null) {
+            request.header(USER_ID_HEADER, userId);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String method, String path, Long userId, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body != null
+                        ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody())
+                .header(HttpHeaders.CONTENT_TYPE, "application/json");
+        if (userId != null) {
+            request.header(USER_ID_HEADER, String.valueOf(userId));
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long createUser() {
+        ResponseEntity<Map> response = restTemplate.postForEntity("/users",
+                Map.of("name", "user", "email", UUID.randomUUID() + "@test.ru"), Map.class);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dal.CommentRepository;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemWithBookDateDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit.booking.index.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ItemQueryCountTests {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void ownerItemListUsesConstantNumberOfQueries() {
+        long singleItemQueries = countQueriesForOwnerWithItems(1);
+        long manyItemsQueries = countQueriesForOwnerWithItems(30);
+
+        assertThat(manyItemsQueries).isEqualTo(singleItemQueries);
+    }
+
+    private long countQueriesForOwnerWithItems(int itemCount) {
+        User owner = saveUser();
+        User booker = saveUser();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < itemCount; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("description")
+                    .available(true)
+                    .ownerId(owner.getId())
+                    .build());
+            saveBooking(item, booker, now.minusDays(3), now.minusDays(2));
+            saveBooking(item, booker, now.minusDays(1), now.plusDays(1));
+            saveBooking(item, booker, now.plusDays(2), now.plusDays(3));
+            saveBooking(item, booker, now.plusDays(4), now.plusDays(5));
+            saveComment(item, booker);
+            saveComment(item, saveUser());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemWithBookDateDto> items = itemService.getAllUserItems(owner.getId());
+        long queries = statistics.getPrepareStatementCount();
+
+        assertThat(items).hasSize(itemCount);
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.getLastBooking()).isNotNull();
+            assertThat(item.getLastBooking().getStart()).isBefore(now);
+            assertThat(item.getLastBooking().getEnd()).isAfter(now);
+            assertThat(item.getNextBooking()).isNotNull();
+            assertThat(item.getNextBooking().getStart()).isAfter(now.plusDays(1));
+            assertThat(item.getNextBooking().getStart()).isBefore(now.plusDays(3));
+            assertThat(item.getComments()).hasSize(2)
+                    .allSatisfy(comment -> {
+                        assertThat(comment.getItemName()).isEqualTo(item.getName());
+                        assertThat(comment.getAuthorName()).isEqualTo("user");
+                    });
+        });
+        return queries;
+    }
+
+    @Test
+    void itemViewLoadsCommentsWithConstantNumberOfQueries() {
+        long singleCommentQueries = countQueriesForItemWithComments(1);
+        long manyCommentsQueries = countQueriesForItemWithComments(20);
+
+        assertThat(manyCommentsQueries).isEqualTo(singleCommentQueries);
+    }
+
+    private long countQueriesForItemWithComments(int commentCount) {
+        User owner = saveUser();
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        for (int i = 0; i < commentCount; i++) {
+            saveComment(item, saveUser());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ItemWithBookDateDto itemDto = itemService.getItemById(item.getId(), owner.getId());
+        long queries = statistics.getPrepareStatementCount();
+
+        assertThat(itemDto.getComments()).hasSize(commentCount)
+                .allSatisfy(comment -> assertThat(comment.getAuthorName()).isEqualTo("user"));
+        return queries;
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+
+    private void saveComment(Item item, User author) {
+        commentRepository.save(Comment.builder()
+                .text("comment")
+                .item(item)
+                .author(author)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+}
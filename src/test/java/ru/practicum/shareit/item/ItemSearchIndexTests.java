@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ItemSearchIndexTests {
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void indexMatchesJpqlSubstringSearch() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+        List<String[]> texts = List.of(
+                new String[]{"Дрель", "Простая дрель"},
+                new String[]{"Аккумуляторная отвертка", "Аккумулятор на 2 часа"},
+                new String[]{"Клей Момент", "Тюбик суперклея марки Момент"},
+                new String[]{"Lawn Mower", "Cuts grass, not drills"},
+                new String[]{"xx", "y"});
+        for (String[] text : texts) {
+            Item item = itemRepository.save(Item.builder()
+                    .name(text[0])
+                    .description(text[1])
+                    .available(true)
+                    .ownerId(owner.getId())
+                    .build());
+            searchIndex.update(item);
+        }
+        Item hidden = itemRepository.save(Item.builder()
+                .name("Дрель ударная")
+                .description("Недоступна")
+                .available(false)
+                .ownerId(owner.getId())
+                .build());
+        searchIndex.update(hidden);
+
+        for (String query : List.of("дрЕль", "АККУМ", "момент", "ЕЛЬ", "x", "xx", "mow", "drill", "нет такого", "а")) {
+            List<Long> expected = itemRepository.search(query).stream()
+                    .filter(item -> item.getOwnerId().equals(owner.getId()))
+                    .map(Item::getId)
+                    .sorted()
+                    .toList();
+            List<Long> actual = searchIndex.search(query, 1000).stream()
+                    .filter(item -> item.getOwnerId().equals(owner.getId()))
+                    .map(ItemDto::getId)
+                    .sorted()
+                    .toList();
+            assertThat(actual).as(query).isEqualTo(expected);
+        }
+
+        hidden.setAvailable(true);
+        searchIndex.update(itemRepository.save(hidden));
+        assertThat(searchIndex.search("ударная", 10)).extracting(ItemDto::getId).containsExactly(hidden.getId());
+        assertThat(searchIndex.search("дрель", 10).get(0).getName()).isEqualTo("Дрель");
+    }
+
+    @Test
+    void staleUpdateArrivingLateDoesNotOverwriteNewerVersion() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Стремянка")
+                .description("Три ступени")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        searchIndex.update(item);
+
+        searchIndex.update(version(item, 2L, "Лестница", true));
+        searchIndex.update(version(item, 1L, "Стремянка", true));
+        assertThat(searchIndex.search("лестница", 10)).extracting(ItemDto::getId).containsExactly(item.getId());
+        assertThat(searchIndex.search("стремянка", 10)).isEmpty();
+
+        searchIndex.update(version(item, 4L, "Лестница", false));
+        searchIndex.update(version(item, 3L, "Лестница", true));
+        assertThat(searchIndex.search("лестница", 10)).isEmpty();
+    }
+
+    @Test
+    void changingSearchResultDoesNotChangeIndex() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Рубанок")
+                .description("Ручной")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        searchIndex.update(item);
+
+        ItemDto found = searchIndex.search("рубанок", 10).get(0);
+        found.setName("Изменено");
+        found.setAvailable(false);
+
+        assertThat(searchIndex.search("рубанок", 10)).singleElement().satisfies(result -> {
+            assertThat(result.getName()).isEqualTo("Рубанок");
+            assertThat(result.getAvailable()).isTrue();
+        });
+    }
+
+    private static Item version(Item item, Long version, String name, boolean available) {
+        return Item.builder()
+                .id(item.getId())
+                .name(name)
+                .description(item.getDescription())
+                .available(available)
+                .ownerId(item.getOwnerId())
+                .version(version)
+                .build();
+    }
+}
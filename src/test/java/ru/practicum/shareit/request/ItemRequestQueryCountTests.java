@@ -0,0 +1,97 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.KeysetPage;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemRequestQueryCountTests {
+    private static final int REQUESTORS = 5;
+    private static final int REQUESTS_PER_USER = 20;
+    private static final int ITEMS_PER_REQUEST = 3;
+    private static final int PAGE_SIZE = 15;
+
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void otherUsersRequestPagesUseConstantNumberOfQueries() {
+        User reader = saveUser();
+        User owner = saveUser();
+        Set<Long> seeded = new HashSet<>();
+        for (int r = 0; r < REQUESTORS; r++) {
+            User requestor = saveUser();
+            for (int i = 0; i < REQUESTS_PER_USER; i++) {
+                ItemRequestDto request = requestService.createRequest(ItemRequestDto.builder()
+                        .description("request " + i)
+                        .build(), requestor.getId());
+                seeded.add(request.getId());
+                for (int j = 0; j < ITEMS_PER_REQUEST; j++) {
+                    itemRepository.save(Item.builder()
+                            .name("answer " + j)
+                            .description("description")
+                            .available(true)
+                            .ownerId(owner.getId())
+                            .requestId(request.getId())
+                            .build());
+                }
+            }
+        }
+        requestService.createRequest(ItemRequestDto.builder().description("own").build(), reader.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> queriesPerPage = new ArrayList<>();
+        List<ItemRequestDto> read = new ArrayList<>();
+        String after = null;
+        do {
+            statistics.clear();
+            KeysetPage<ItemRequestDto> page = requestService.getOtherUsersRequests(reader.getId(), after, PAGE_SIZE);
+            queriesPerPage.add(statistics.getPrepareStatementCount());
+            read.addAll(page.getContent());
+            after = page.getNextCursor();
+        } while (after != null);
+
+        List<ItemRequestDto> seededRead = read.stream()
+                .filter(request -> seeded.contains(request.getId()))
+                .toList();
+        assertThat(seededRead).hasSize(REQUESTORS * REQUESTS_PER_USER);
+        assertThat(seededRead).allSatisfy(request -> assertThat(request.getItems()).hasSize(ITEMS_PER_REQUEST));
+        assertThat(read).noneMatch(request -> request.getRequestorId().equals(reader.getId()));
+        assertThat(read).extracting(ItemRequestDto::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < read.size(); i++) {
+            assertThat(read.get(i).getCreated()).isBeforeOrEqualTo(read.get(i - 1).getCreated());
+        }
+        assertThat(queriesPerPage).allSatisfy(queries -> assertThat(queries).isLessThanOrEqualTo(2L));
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exceptions.UserNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-cache-pool",
+        "spring.datasource.hikari.maximum-pool-size=" + UserCachePoolTests.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=1000",
+        "shareit.booking.index.enabled=false",
+        "shareit.item.search.index.enabled=false",
+        // регионы JCache общие для всех контекстов в JVM, а у этого контекста своя база
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class UserCachePoolTests {
+    static final int POOL_SIZE = 2;
+    private static final int CALLS = POOL_SIZE * 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void concurrentMissesInReadOnlyCallsDoNotExhaustPool() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(CALLS);
+        List<Future<Throwable>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLS; i++) {
+                long unknownUserId = -1_000_000L - i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.getUserBookings(unknownUserId, BookingState.ALL, null, null);
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            for (Future<Throwable> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isInstanceOf(UserNotFoundException.class);
+            }
+        }
+    }
+}
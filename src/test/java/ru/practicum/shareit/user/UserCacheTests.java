@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserCacheTests {
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, Optional.empty(), meterRegistry, 100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void cachesFoundUsersAndReturnsCopies() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(User.builder().id(1L).name("User").email("user@mail.ru").build()));
+
+        User first = userCache.findById(1L).orElseThrow();
+        first.setName("Changed");
+        User second = userCache.findById(1L).orElseThrow();
+
+        assertThat(second.getName()).isEqualTo("User");
+        verify(userRepository, times(1)).findById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void cachesMissingUsersUntilInvalidated() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(userCache.findById(2L)).isEmpty();
+        assertThat(userCache.findById(2L)).isEmpty();
+        verify(userRepository, times(1)).findById(2L);
+
+        when(userRepository.findById(2L))
+                .thenReturn(Optional.of(User.builder().id(2L).name("New").email("new@mail.ru").build()));
+        userCache.invalidate(2L);
+
+        assertThat(userCache.findById(2L)).map(User::getName).contains("New");
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void cachesCopyOfLoadedEntity() {
+        User managed = User.builder().id(3L).name("User").email("user@mail.ru").build();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(managed));
+
+        userCache.findById(3L);
+        managed.setName("Uncommitted");
+
+        assertThat(userCache.findById(3L)).map(User::getName).contains("User");
+        verify(userRepository, times(1)).findById(3L);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.error.ErrorHandler;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class UserOptimisticLockTests {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void updateOfStaleVersionIsRejected() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@test.ru")
+                .build());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            assertThat(userRepository.findById(user.getId())).isPresent();
+            concurrentTransaction.executeWithoutResult(concurrent ->
+                    userService.updateUser(user.getId(), UserDto.builder().name("concurrent").build()));
+            userService.updateUser(user.getId(), UserDto.builder().name("stale").build());
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getName()).isEqualTo("concurrent");
+    }
+
+    @Test
+    void optimisticLockFailureIsReturnedAsConflict() throws Exception {
+        UserServiceImpl failingService = mock(UserServiceImpl.class);
+        when(failingService.updateUser(eq(1L), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(failingService))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        mockMvc.perform(patch("/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"stale\"}"))
+                .andExpect(status().isConflict());
+    }
+}